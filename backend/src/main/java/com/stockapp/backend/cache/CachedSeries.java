@@ -0,0 +1,16 @@
+package com.stockapp.backend.cache;
+
+import com.stockapp.backend.model.SymbolSeries;
+
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * A symbol's series as held in {@code stockDataCache}, stamped with when it was fetched upstream.
+ */
+public record CachedSeries(SymbolSeries series, Instant fetchedAt) {
+
+    public boolean isOlderThan(Duration age, Instant now) {
+        return fetchedAt.plus(age).isBefore(now);
+    }
+}
@@ -0,0 +1,221 @@
+package com.stockapp.backend.cache;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import reactor.core.scheduler.Schedulers;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * {@link SharedSeriesTier} on any server speaking the Redis protocol (Redis, Valkey,
+ * ElastiCache). Entries are stored in {@link SeriesCodec} form under {@code <prefix>series:<SYMBOL>},
+ * invalidations go out on the {@code <prefix>invalidate} channel, and refresh locks are
+ * {@code SET NX PX} keys released by a compare-and-delete script so an expired lock taken over
+ * by another node is never released by the old holder.
+ * <p>
+ * The tier is an optimization, never a dependency: when the server cannot be reached, reads
+ * miss, writes are dropped and locks are granted, which is how a node behaves on its own. The
+ * invalidation subscription is retried until the server is reachable; after that the client
+ * resubscribes by itself whenever the connection is re-established.
+ */
+public class RedisSharedTier implements SharedSeriesTier, AutoCloseable {
+    private static final Logger logger = LoggerFactory.getLogger(RedisSharedTier.class);
+
+    private static final RedisScript<Long> RELEASE_LOCK = RedisScript.of(
+        "if redis.call('get', KEYS[1]) == ARGV[1] then return redis.call('del', KEYS[1]) else return 0 end",
+        Long.class);
+    private static final Duration RESUBSCRIBE_DELAY = Duration.ofSeconds(5);
+    private static final List<String> OPERATIONS = List.of("get", "put", "lock", "unlock", "subscribe");
+
+    private final RedisTemplate<String, byte[]> redis;
+    private final String keyPrefix;
+    private final String invalidationChannel;
+    private final Duration entryTtl;
+    private final Duration lockTtl;
+    private final String nodeId = UUID.randomUUID().toString();
+    private final AtomicLong lockTokens = new AtomicLong();
+    private final AtomicBoolean reachable = new AtomicBoolean(true);
+    private final List<Consumer<String>> invalidationListeners = new CopyOnWriteArrayList<>();
+    private final DistributionSummary entryBytes;
+    private final Map<String, Counter> errors = new HashMap<>();
+    private final Counter invalidationsSent;
+    private final Counter invalidationsReceived;
+    private final Counter locksAcquired;
+    private final Counter locksContended;
+    private volatile RedisConnection subscription;
+    private volatile boolean closed;
+
+    public RedisSharedTier(RedisTemplate<String, byte[]> redis, String keyPrefix, Duration entryTtl,
+                           Duration lockTtl, MeterRegistry meterRegistry) {
+        this.redis = redis;
+        this.keyPrefix = keyPrefix;
+        this.invalidationChannel = keyPrefix + "invalidate";
+        this.entryTtl = entryTtl;
+        this.lockTtl = lockTtl;
+        this.entryBytes = DistributionSummary.builder("stockapp.cache.shared.entry.size")
+            .description("Encoded size of series written to the shared cache tier")
+            .baseUnit("bytes")
+            .register(meterRegistry);
+        for (String operation : OPERATIONS) {
+            errors.put(operation, Counter.builder("stockapp.cache.shared.errors")
+                .description("Shared cache tier operations that failed and fell back to local behaviour")
+                .tag("operation", operation)
+                .register(meterRegistry));
+        }
+        this.invalidationsSent = invalidationCounter(meterRegistry, "sent");
+        this.invalidationsReceived = invalidationCounter(meterRegistry, "received");
+        this.locksAcquired = lockCounter(meterRegistry, "acquired");
+        this.locksContended = lockCounter(meterRegistry, "contended");
+        subscribe();
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return true;
+    }
+
+    @Override
+    public CachedSeries get(String symbol) {
+        try {
+            byte[] bytes = redis.opsForValue().get(seriesKey(symbol));
+            reachable("get");
+            return bytes == null ? null : SeriesCodec.decode(symbol, bytes);
+        } catch (RuntimeException e) {
+            failed("get", e);
+            return null;
+        }
+    }
+
+    @Override
+    public void put(String symbol, CachedSeries entry) {
+        try {
+            byte[] bytes = SeriesCodec.encode(entry);
+            redis.opsForValue().set(seriesKey(symbol), bytes, entryTtl);
+            entryBytes.record(bytes.length);
+            redis.convertAndSend(invalidationChannel, (nodeId + " " + symbol).getBytes(StandardCharsets.UTF_8));
+            invalidationsSent.increment();
+            reachable("put");
+        } catch (RuntimeException e) {
+            failed("put", e);
+        }
+    }
+
+    @Override
+    public void onInvalidation(Consumer<String> listener) {
+        invalidationListeners.add(listener);
+    }
+
+    @Override
+    public RefreshLock tryLock(String symbol) {
+        String key = keyPrefix + "refresh:" + symbol;
+        byte[] token = (nodeId + ":" + lockTokens.incrementAndGet()).getBytes(StandardCharsets.UTF_8);
+        try {
+            boolean acquired = Boolean.TRUE.equals(redis.opsForValue().setIfAbsent(key, token, lockTtl));
+            reachable("lock");
+            (acquired ? locksAcquired : locksContended).increment();
+            return acquired ? () -> release(key, token) : null;
+        } catch (RuntimeException e) {
+            failed("lock", e);
+            return RefreshLock.NONE;
+        }
+    }
+
+    private void release(String key, byte[] token) {
+        try {
+            redis.execute(RELEASE_LOCK, List.of(key), token);
+        } catch (RuntimeException e) {
+            // The lock expires on its own after lock-ttl
+            failed("unlock", e);
+        }
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        RedisConnection connection = subscription;
+        if (connection != null) {
+            connection.close();
+        }
+    }
+
+    private void subscribe() {
+        if (closed) {
+            return;
+        }
+        RedisConnection connection = null;
+        try {
+            connection = redis.getRequiredConnectionFactory().getConnection();
+            connection.subscribe(this::onMessage, invalidationChannel.getBytes(StandardCharsets.UTF_8));
+            subscription = connection;
+        } catch (RuntimeException e) {
+            if (connection != null) {
+                connection.close();
+            }
+            failed("subscribe", e);
+            Schedulers.parallel().schedule(this::subscribe, RESUBSCRIBE_DELAY.toMillis(), TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private void onMessage(Message message, byte[] pattern) {
+        String body = new String(message.getBody(), StandardCharsets.UTF_8);
+        int separator = body.indexOf(' ');
+        if (separator < 0 || body.substring(0, separator).equals(nodeId)) {
+            return;
+        }
+        String symbol = body.substring(separator + 1);
+        invalidationsReceived.increment();
+        for (Consumer<String> listener : invalidationListeners) {
+            listener.accept(symbol);
+        }
+    }
+
+    private String seriesKey(String symbol) {
+        return keyPrefix + "series:" + symbol;
+    }
+
+    private void reachable(String operation) {
+        if (!reachable.getAndSet(true)) {
+            logger.info("Shared cache tier reachable again ({})", operation);
+        }
+    }
+
+    private void failed(String operation, RuntimeException e) {
+        errors.get(operation).increment();
+        if (reachable.getAndSet(false)) {
+            logger.warn("Shared cache tier unavailable, continuing with the local cache only: {}", e.getMessage());
+        } else {
+            logger.debug("Shared cache {} failed: {}", operation, e.getMessage());
+        }
+    }
+
+    private static Counter invalidationCounter(MeterRegistry meterRegistry, String direction) {
+        return Counter.builder("stockapp.cache.shared.invalidations")
+            .description("Cross-node invalidation messages by direction")
+            .tag("direction", direction)
+            .register(meterRegistry);
+    }
+
+    private static Counter lockCounter(MeterRegistry meterRegistry, String outcome) {
+        return Counter.builder("stockapp.cache.shared.locks")
+            .description("Cross-node refresh lock attempts by outcome")
+            .tag("outcome", outcome)
+            .register(meterRegistry);
+    }
+}
@@ -0,0 +1,180 @@
+package com.stockapp.backend.cache;
+
+import com.stockapp.backend.model.SymbolSeries;
+
+import java.time.Instant;
+import java.util.Arrays;
+
+/**
+ * Compact binary form of a {@link CachedSeries} for the shared cache tier.
+ * <p>
+ * Layout: format byte, flags byte, fetch time (epoch millis), bar count, then the columns.
+ * Dates are delta-encoded from the previous bar. Prices are written as deltas of the price
+ * scaled to {@value #PRICE_DECIMALS} decimals, which is how AlphaVantage quotes them; a series
+ * with any price that does not survive that scaling is written as raw doubles instead. All
+ * integers are zig-zag varints, so a typical monthly bar takes around 17 bytes rather than
+ * the 44 of a stored record. The symbol is not encoded; it is the key the bytes are held under.
+ */
+public final class SeriesCodec {
+    private static final byte FORMAT = 1;
+    private static final int SCALED_PRICES = 1;
+    private static final int PRICE_DECIMALS = 4;
+    private static final double PRICE_SCALE = 10_000d;
+
+    private SeriesCodec() {
+    }
+
+    public static byte[] encode(CachedSeries entry) {
+        SymbolSeries series = entry.series();
+        int n = series.size();
+        boolean scaled = pricesScale(series);
+        Writer out = new Writer(16 + n * (scaled ? 16 : 40));
+        out.write(FORMAT);
+        out.write(scaled ? SCALED_PRICES : 0);
+        out.writeLong(entry.fetchedAt().toEpochMilli());
+        out.writeLong(n);
+
+        long previousDay = 0;
+        for (int i = 0; i < n; i++) {
+            out.writeLong(series.epochDay(i) - previousDay);
+            previousDay = series.epochDay(i);
+        }
+        long[] previous = new long[4];
+        for (int i = 0; i < n; i++) {
+            double[] bar = {series.open(i), series.high(i), series.low(i), series.close(i)};
+            for (int c = 0; c < bar.length; c++) {
+                if (scaled) {
+                    long value = Math.round(bar[c] * PRICE_SCALE);
+                    out.writeLong(value - previous[c]);
+                    previous[c] = value;
+                } else {
+                    out.writeDouble(bar[c]);
+                }
+            }
+            out.writeLong(series.volume(i));
+        }
+        return out.toByteArray();
+    }
+
+    public static CachedSeries decode(String symbol, byte[] bytes) {
+        Reader in = new Reader(bytes);
+        if (in.read() != FORMAT) {
+            throw new IllegalArgumentException("Unrecognized cached series encoding for " + symbol);
+        }
+        boolean scaled = (in.read() & SCALED_PRICES) != 0;
+        Instant fetchedAt = Instant.ofEpochMilli(in.readLong());
+        int n = Math.toIntExact(in.readLong());
+
+        int[] days = new int[n];
+        long day = 0;
+        for (int i = 0; i < n; i++) {
+            day += in.readLong();
+            days[i] = (int) day;
+        }
+        SymbolSeries.Builder bars = SymbolSeries.builder(symbol, n);
+        long[] previous = new long[4];
+        double[] bar = new double[4];
+        for (int i = 0; i < n; i++) {
+            for (int c = 0; c < bar.length; c++) {
+                if (scaled) {
+                    previous[c] += in.readLong();
+                    bar[c] = previous[c] / PRICE_SCALE;
+                } else {
+                    bar[c] = in.readDouble();
+                }
+            }
+            bars.add(days[i], bar[0], bar[1], bar[2], bar[3], in.readLong());
+        }
+        return new CachedSeries(bars.build(), fetchedAt);
+    }
+
+    /**
+     * Whether every price is exactly recovered from its scaled integer. Division by the scale is
+     * correctly rounded, so this holds for any price quoted with at most four decimals.
+     */
+    private static boolean pricesScale(SymbolSeries series) {
+        for (int i = 0; i < series.size(); i++) {
+            if (!scales(series.open(i)) || !scales(series.high(i))
+                    || !scales(series.low(i)) || !scales(series.close(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean scales(double price) {
+        return Math.abs(price) < 1e11 && Math.round(price * PRICE_SCALE) / PRICE_SCALE == price;
+    }
+
+    private static final class Writer {
+        private byte[] buffer;
+        private int size;
+
+        Writer(int capacity) {
+            buffer = new byte[capacity];
+        }
+
+        void write(int b) {
+            if (size == buffer.length) {
+                buffer = Arrays.copyOf(buffer, buffer.length * 2);
+            }
+            buffer[size++] = (byte) b;
+        }
+
+        void writeLong(long value) {
+            long zigzag = (value << 1) ^ (value >> 63);
+            while ((zigzag & ~0x7FL) != 0) {
+                write((int) ((zigzag & 0x7F) | 0x80));
+                zigzag >>>= 7;
+            }
+            write((int) zigzag);
+        }
+
+        void writeDouble(double value) {
+            long bits = Double.doubleToRawLongBits(value);
+            for (int shift = 56; shift >= 0; shift -= 8) {
+                write((int) (bits >>> shift));
+            }
+        }
+
+        byte[] toByteArray() {
+            return Arrays.copyOf(buffer, size);
+        }
+    }
+
+    private static final class Reader {
+        private final byte[] bytes;
+        private int position;
+
+        Reader(byte[] bytes) {
+            this.bytes = bytes;
+        }
+
+        int read() {
+            if (position == bytes.length) {
+                throw new IllegalArgumentException("Truncated cached series");
+            }
+            return bytes[position++] & 0xFF;
+        }
+
+        long readLong() {
+            long zigzag = 0;
+            for (int shift = 0; ; shift += 7) {
+                int b = read();
+                zigzag |= (long) (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) {
+                    break;
+                }
+            }
+            return (zigzag >>> 1) ^ -(zigzag & 1);
+        }
+
+        double readDouble() {
+            long bits = 0;
+            for (int i = 0; i < 8; i++) {
+                bits = (bits << 8) | read();
+            }
+            return Double.longBitsToDouble(bits);
+        }
+    }
+}
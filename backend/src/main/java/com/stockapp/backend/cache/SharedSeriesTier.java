@@ -0,0 +1,78 @@
+package com.stockapp.backend.cache;
+
+import java.util.function.Consumer;
+
+/**
+ * Second cache level shared by every node, behind each node's own {@link SymbolSeriesCache}.
+ * <p>
+ * A node that fetches a symbol publishes it here and tells the other nodes to drop their local
+ * copy, and a refresh lock keeps nodes from fetching the same symbol upstream at once. With
+ * {@link #LOCAL_ONLY} every node caches on its own, as a single node does.
+ */
+public interface SharedSeriesTier {
+
+    SharedSeriesTier LOCAL_ONLY = new LocalOnly();
+
+    boolean isEnabled();
+
+    /**
+     * Returns the shared entry for the symbol, or {@code null} if there is none or the
+     * shared tier cannot be reached.
+     */
+    CachedSeries get(String symbol);
+
+    /**
+     * Publishes the entry and invalidates the symbol on every other node.
+     */
+    void put(String symbol, CachedSeries entry);
+
+    /**
+     * Registers a callback run with each symbol another node has invalidated.
+     */
+    void onInvalidation(Consumer<String> listener);
+
+    /**
+     * Takes the symbol's refresh lock, returning {@code null} if another node holds it. If the
+     * shared tier cannot be reached the lock is granted, so nodes fall back to fetching alone.
+     */
+    RefreshLock tryLock(String symbol);
+
+    interface RefreshLock {
+        RefreshLock NONE = () -> {
+        };
+
+        /**
+         * Releases the lock if it is still held by this node; an expired lock is left alone.
+         */
+        void release();
+    }
+
+    final class LocalOnly implements SharedSeriesTier {
+
+        private LocalOnly() {
+        }
+
+        @Override
+        public boolean isEnabled() {
+            return false;
+        }
+
+        @Override
+        public CachedSeries get(String symbol) {
+            return null;
+        }
+
+        @Override
+        public void put(String symbol, CachedSeries entry) {
+        }
+
+        @Override
+        public void onInvalidation(Consumer<String> listener) {
+        }
+
+        @Override
+        public RefreshLock tryLock(String symbol) {
+            return RefreshLock.NONE;
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package com.stockapp.backend.cache;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+/**
+ * Single-flight guard for upstream fetches: concurrent callers asking for the same symbol
+ * share one pending call instead of each hitting AlphaVantage.
+ */
+@Component
+public class SymbolFetchCoalescer {
+    private final ConcurrentMap<String, Mono<CachedSeries>> inFlight = new ConcurrentHashMap<>();
+    private final Counter leaders;
+    private final Counter coalesced;
+
+    public SymbolFetchCoalescer(MeterRegistry meterRegistry) {
+        this.leaders = Counter.builder("stockapp.fetch.coalescing")
+            .description("Upstream fetch requests by whether they started a call or joined one in flight")
+            .tag("outcome", "leader")
+            .register(meterRegistry);
+        this.coalesced = Counter.builder("stockapp.fetch.coalescing")
+            .description("Upstream fetch requests by whether they started a call or joined one in flight")
+            .tag("outcome", "coalesced")
+            .register(meterRegistry);
+        Gauge.builder("stockapp.fetch.inflight", inFlight, ConcurrentMap::size)
+            .description("Symbols with an upstream fetch currently in flight")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Returns the in-flight fetch for the symbol, starting one from {@code loader} if none is pending.
+     * The shared call runs to completion even if the subscriber that started it cancels.
+     */
+    public Mono<CachedSeries> fetch(String symbol, Supplier<Mono<CachedSeries>> loader) {
+        return Mono.defer(() -> {
+            AtomicReference<Mono<CachedSeries>> created = new AtomicReference<>();
+            Mono<CachedSeries> shared = inFlight.computeIfAbsent(symbol, key -> {
+                Mono<CachedSeries> call = Mono.defer(loader)
+                    .doFinally(signal -> inFlight.remove(key, created.get()))
+                    .cache();
+                created.set(call);
+                return call;
+            });
+            (shared == created.get() ? leaders : coalesced).increment();
+            return shared;
+        });
+    }
+}
@@ -0,0 +1,193 @@
+package com.stockapp.backend.cache;
+
+import com.stockapp.backend.ingest.SymbolUniverse;
+import com.stockapp.backend.model.SymbolSeries;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Time-series cache keyed by a single normalized symbol, so overlapping watchlists
+ * share entries regardless of how the query string was ordered or spaced.
+ * <p>
+ * Entries stay fresh for {@code stockapp.cache.ttl}; past that they are kept (up to the
+ * retention configured in {@code CacheConfig}) as a stale fallback for when upstream fails.
+ * <p>
+ * This is the near cache in front of an optional {@link SharedSeriesTier}: local misses and
+ * expired entries are looked up in the shared tier before going upstream, fetched series are
+ * written through to it, and symbols another node has refreshed are evicted locally so the
+ * next lookup picks up that node's copy.
+ * <p>
+ * Entries for symbols in the {@link SymbolUniverse} stay fresh for the universe's
+ * {@link SymbolUniverse#staleAfter() staleAfter} instead: the ingestion pipeline, not request
+ * traffic, decides when they are refetched, and they only turn stale if it falls behind.
+ * <p>
+ * {@code stockapp.cache.lookups} counts lookups by result per symbol, but only for symbols known
+ * to exist: those in the universe and those that have been cached, up to
+ * {@value #MAX_TAGGED_SYMBOLS} of them. Lookups for any other symbol, including the first miss
+ * for one not yet cached, are counted under {@value #OTHER_SYMBOL}, so mistyped symbols in
+ * requests cannot grow the number of meters.
+ */
+@Component
+public class SymbolSeriesCache {
+    public static final String CACHE_NAME = "stockDataCache";
+    static final String OTHER_SYMBOL = "other";
+    static final int MAX_TAGGED_SYMBOLS = 1000;
+
+    private final Cache cache;
+    private final MeterRegistry meterRegistry;
+    private final Duration ttl;
+    private final DistributionSummary seriesBytes;
+    private final Map<String, LookupCounters> symbolLookups = new ConcurrentHashMap<>();
+    private final LookupCounters otherLookups;
+    private final SharedSeriesTier sharedTier;
+    private final SymbolUniverse universe;
+
+    public SymbolSeriesCache(CacheManager cacheManager, MeterRegistry meterRegistry,
+                             @Value("${stockapp.cache.ttl:1h}") Duration ttl) {
+        this(cacheManager, meterRegistry, ttl, SharedSeriesTier.LOCAL_ONLY, SymbolUniverse.NONE);
+    }
+
+    @Autowired
+    public SymbolSeriesCache(CacheManager cacheManager, MeterRegistry meterRegistry,
+                             @Value("${stockapp.cache.ttl:1h}") Duration ttl, SharedSeriesTier sharedTier,
+                             SymbolUniverse universe) {
+        this.cache = cacheManager.getCache(CACHE_NAME);
+        this.sharedTier = sharedTier;
+        this.universe = universe;
+        this.meterRegistry = meterRegistry;
+        this.ttl = ttl;
+        this.seriesBytes = DistributionSummary.builder("stockapp.cache.series.size")
+            .description("Approximate heap retained per cached symbol series")
+            .baseUnit("bytes")
+            .register(meterRegistry);
+        this.otherLookups = new LookupCounters(OTHER_SYMBOL);
+        universe.symbols().forEach(this::trackLookups);
+        sharedTier.onInvalidation(cache::evict);
+    }
+
+    /**
+     * Returns the cached entry for the symbol, fresh or not, or {@code null} if there is none.
+     * A local entry that is missing or no longer fresh is replaced by a newer shared one.
+     */
+    public CachedSeries get(String symbol) {
+        CachedSeries entry = cache.get(symbol, CachedSeries.class);
+        if (entry != null && isFresh(entry)) {
+            lookups(symbol).hit.increment();
+            return entry;
+        }
+        CachedSeries shared = sharedTier.isEnabled() ? sharedTier.get(symbol) : null;
+        if (shared != null && (entry == null || shared.fetchedAt().isAfter(entry.fetchedAt()))) {
+            CachedSeries local = putLocal(symbol, shared.series(), shared.fetchedAt());
+            LookupCounters counters = lookups(symbol);
+            (isFresh(shared) ? counters.shared : counters.expired).increment();
+            return local;
+        }
+        LookupCounters counters = lookups(symbol);
+        (entry == null ? counters.miss : counters.expired).increment();
+        return entry;
+    }
+
+    /**
+     * The local entry for the symbol if it is fresh, otherwise {@code null}. Unlike
+     * {@link #get(String)} this never goes to the shared tier, so it does not block.
+     */
+    public CachedSeries getFreshLocal(String symbol) {
+        CachedSeries entry = cache.get(symbol, CachedSeries.class);
+        if (entry == null || !isFresh(entry)) {
+            return null;
+        }
+        lookups(symbol).hit.increment();
+        return entry;
+    }
+
+    /**
+     * Whether {@link #get(String)} can go to the shared tier, a blocking network call.
+     */
+    public boolean isShared() {
+        return sharedTier.isEnabled();
+    }
+
+    /**
+     * The shared entry for the symbol if it was fetched at or after {@code since}, cached locally.
+     */
+    public CachedSeries getSharedSince(String symbol, Instant since) {
+        CachedSeries shared = sharedTier.get(symbol);
+        if (shared == null || shared.fetchedAt().isBefore(since)) {
+            return null;
+        }
+        CachedSeries local = putLocal(symbol, shared.series(), shared.fetchedAt());
+        lookups(symbol).shared.increment();
+        return local;
+    }
+
+    public boolean isFresh(CachedSeries entry) {
+        Duration maxAge = universe.isMaintained(entry.series().symbol()) ? universe.staleAfter() : ttl;
+        return !entry.isOlderThan(maxAge, Instant.now());
+    }
+
+    /**
+     * Caches a series just fetched upstream, writing it through to the shared tier.
+     */
+    public CachedSeries put(String symbol, SymbolSeries series) {
+        CachedSeries entry = putLocal(symbol, series, Instant.now());
+        sharedTier.put(symbol, entry);
+        return entry;
+    }
+
+    /**
+     * Caches the series on this node only, for copies that are not news to other nodes.
+     */
+    public CachedSeries putLocal(String symbol, SymbolSeries series, Instant fetchedAt) {
+        CachedSeries entry = new CachedSeries(series, fetchedAt);
+        cache.put(symbol, entry);
+        seriesBytes.record(series.retainedBytes());
+        trackLookups(symbol);
+        return entry;
+    }
+
+    private LookupCounters lookups(String symbol) {
+        return symbolLookups.getOrDefault(symbol, otherLookups);
+    }
+
+    /**
+     * Starts counting lookups for the symbol under its own tag, unless the bound is reached.
+     */
+    private void trackLookups(String symbol) {
+        if (!symbolLookups.containsKey(symbol) && symbolLookups.size() < MAX_TAGGED_SYMBOLS) {
+            symbolLookups.computeIfAbsent(symbol, LookupCounters::new);
+        }
+    }
+
+    private final class LookupCounters {
+        final Counter hit;
+        final Counter shared;
+        final Counter expired;
+        final Counter miss;
+
+        LookupCounters(String symbol) {
+            this.hit = lookupCounter(symbol, "hit");
+            this.shared = lookupCounter(symbol, "shared");
+            this.expired = lookupCounter(symbol, "expired");
+            this.miss = lookupCounter(symbol, "miss");
+        }
+
+        private Counter lookupCounter(String symbol, String result) {
+            return Counter.builder("stockapp.cache.lookups")
+                .description("Symbol-level stock data cache lookups")
+                .tag("symbol", symbol)
+                .tag("result", result)
+                .register(meterRegistry);
+        }
+    }
+}
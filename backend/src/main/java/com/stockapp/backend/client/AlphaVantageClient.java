@@ -0,0 +1,217 @@
+package com.stockapp.backend.client;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.stockapp.backend.model.SymbolSeries;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.netty.handler.timeout.TimeoutException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import org.springframework.web.util.UriComponentsBuilder;
+import reactor.core.publisher.Mono;
+import reactor.netty.http.client.PrematureCloseException;
+import reactor.util.retry.Retry;
+
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Non-blocking access to the AlphaVantage TIME_SERIES_MONTHLY endpoint for a single symbol.
+ * <p>
+ * One {@link WebClient} is built at startup and shared by all calls, so they reuse pooled
+ * connections. Each {@link #fetchMonthly} is a single attempt. Callers repeat transient
+ * failures (connection errors, socket timeouts, 5xx responses) with {@link #retrySpec()},
+ * around their quota grant so every attempt is paid for; the call is a GET, so repeating it
+ * is safe. A 429 is reported as {@link UpstreamRateLimitException}, like a quota note, and
+ * neither is retried, nor are rejected symbols.
+ * <p>
+ * Each call records {@code stockapp.upstream.latency} from subscription to the last byte,
+ * {@code stockapp.upstream.parse} for the time spent inside the parser, and a
+ * {@code stockapp.upstream.errors} count per failure type.
+ */
+@Component
+public class AlphaVantageClient {
+    private static final Logger logger = LoggerFactory.getLogger(AlphaVantageClient.class);
+    private static final Duration RATE_LIMIT_RETRY = Duration.ofMinutes(1);
+    private static final List<String> ERROR_TYPES =
+        List.of("rate_limited", "http_status", "timeout", "connection", "rejected", "malformed", "other");
+
+    private final WebClient webClient;
+    private final MeterRegistry meterRegistry;
+    private final JsonFactory jsonFactory = new JsonFactory();
+    private final Timer parseTime;
+    private final Timer succeeded;
+    private final Timer failed;
+    private final Timer cancelled;
+    private final Map<String, Counter> errors = new HashMap<>();
+    private final Counter retries;
+    private final Retry retry;
+
+    @Value("${alphavantage.api.key}")
+    private String apiKey;
+
+    @Value("${alphavantage.api.url}")
+    private String apiUrl;
+
+    public AlphaVantageClient(WebClient.Builder webClientBuilder, MeterRegistry meterRegistry,
+                              @Value("${alphavantage.retry.max-retries:2}") int maxRetries,
+                              @Value("${alphavantage.retry.backoff:200ms}") Duration backoff) {
+        this.webClient = webClientBuilder.build();
+        this.meterRegistry = meterRegistry;
+        this.parseTime = Timer.builder("stockapp.upstream.parse")
+            .description("CPU time spent parsing AlphaVantage responses")
+            .publishPercentileHistogram()
+            .register(meterRegistry);
+        this.succeeded = latency("success");
+        this.failed = latency("error");
+        this.cancelled = latency("cancelled");
+        for (String type : ERROR_TYPES) {
+            errors.put(type, Counter.builder("stockapp.upstream.errors")
+                .description("Failed AlphaVantage calls by failure type")
+                .tag("type", type)
+                .register(meterRegistry));
+        }
+        this.retries = Counter.builder("stockapp.upstream.retries")
+            .description("AlphaVantage calls repeated after a transient failure")
+            .register(meterRegistry);
+        this.retry = Retry.backoff(maxRetries, backoff)
+            .jitter(0.5)
+            .filter(AlphaVantageClient::isTransient)
+            .doBeforeRetry(signal -> retries.increment())
+            .onRetryExhaustedThrow((spec, signal) -> signal.failure());
+    }
+
+    public Mono<SymbolSeries> fetchMonthly(String symbol) {
+        String url = UriComponentsBuilder.fromHttpUrl(apiUrl)
+            .queryParam("function", "TIME_SERIES_MONTHLY")
+            .queryParam("symbol", symbol)
+            .queryParam("apikey", apiKey)
+            .build()
+            .toUriString();
+
+        return Mono.defer(() -> {
+            logger.debug("Calling AlphaVantage API for symbol {}", symbol);
+            Timer.Sample sample = Timer.start(meterRegistry);
+            // Parse buffers as they arrive rather than aggregating the body into a String first
+            return webClient
+                .get()
+                .uri(url)
+                .retrieve()
+                .bodyToFlux(DataBuffer.class)
+                .reduceWith(() -> new TimedParse(new MonthlySeriesParser(jsonFactory, symbol)), this::feed)
+                .map(this::finish)
+                .onErrorMap(WebClientResponseException.class, AlphaVantageClient::toUpstreamException)
+                .doOnSuccess(series -> sample.stop(succeeded))
+                .doOnError(e -> {
+                    sample.stop(failed);
+                    errors.get(errorType(e)).increment();
+                })
+                .doOnCancel(() -> sample.stop(cancelled));
+        });
+    }
+
+    /**
+     * Backoff for repeating {@link #fetchMonthly} after a transient failure. Apply it outside
+     * the quota grant, so each attempt waits for and spends its own quota.
+     */
+    public Retry retrySpec() {
+        return retry;
+    }
+
+    private static RuntimeException toUpstreamException(WebClientResponseException e) {
+        if (e.getStatusCode().value() == HttpStatus.TOO_MANY_REQUESTS.value()) {
+            return new UpstreamRateLimitException("AlphaVantage responded with HTTP 429", RATE_LIMIT_RETRY);
+        }
+        return new UpstreamHttpException(e.getStatusCode().value());
+    }
+
+    private TimedParse feed(TimedParse parse, DataBuffer buffer) {
+        long start = System.nanoTime();
+        try (DataBuffer.ByteBufferIterator chunks = buffer.readableByteBuffers()) {
+            while (chunks.hasNext()) {
+                ByteBuffer chunk = chunks.next();
+                parse.parser.feed(chunk);
+            }
+        } finally {
+            DataBufferUtils.release(buffer);
+            parse.nanos += System.nanoTime() - start;
+        }
+        return parse;
+    }
+
+    private SymbolSeries finish(TimedParse parse) {
+        long start = System.nanoTime();
+        try {
+            return parse.parser.finish();
+        } finally {
+            parseTime.record(parse.nanos + System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private Timer latency(String outcome) {
+        return Timer.builder("stockapp.upstream.latency")
+            .description("AlphaVantage call time from request to last response byte")
+            .tag("outcome", outcome)
+            .publishPercentileHistogram()
+            .register(meterRegistry);
+    }
+
+    /**
+     * Failures worth repeating: the provider or the network hiccupped, rather than refusing
+     * the request.
+     */
+    static boolean isTransient(Throwable e) {
+        if (e instanceof UpstreamHttpException http) {
+            return http.isTransient();
+        }
+        return e instanceof WebClientRequestException
+            || e instanceof TimeoutException
+            || e instanceof PrematureCloseException;
+    }
+
+    static String errorType(Throwable e) {
+        if (e instanceof UpstreamRateLimitException) {
+            return "rate_limited";
+        }
+        if (e instanceof UpstreamHttpException) {
+            return "http_status";
+        }
+        if (e instanceof TimeoutException) {
+            return "timeout";
+        }
+        if (e instanceof WebClientRequestException) {
+            return "connection";
+        }
+        if (e instanceof IllegalArgumentException) {
+            return "rejected";
+        }
+        if (e instanceof IllegalStateException || e instanceof UncheckedIOException) {
+            return "malformed";
+        }
+        return "other";
+    }
+
+    /** Parser plus the time spent feeding it, which is only a fraction of the call time. */
+    private static final class TimedParse {
+        private final MonthlySeriesParser parser;
+        private long nanos;
+
+        TimedParse(MonthlySeriesParser parser) {
+            this.parser = parser;
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package com.stockapp.backend.client;
+
+/**
+ * Order in which queued upstream calls are granted quota; lower ordinal goes first.
+ */
+public enum FetchPriority {
+    /** A user request is waiting on the result. */
+    INTERACTIVE,
+    /** Refresh-ahead and other work nobody is blocked on. */
+    BACKGROUND
+}
@@ -0,0 +1,205 @@
+package com.stockapp.backend.client;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.async.ByteBufferFeeder;
+import com.stockapp.backend.model.SymbolSeries;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.Arrays;
+
+/**
+ * Incremental parser for a TIME_SERIES_MONTHLY response. Chunks are fed as they arrive and
+ * bars go straight into a {@link SymbolSeries.Builder}; no tree or per-field strings are
+ * built. One instance parses one response.
+ */
+public class MonthlySeriesParser {
+    private static final String TIME_SERIES = "Monthly Time Series";
+    private static final String INFORMATION = "Information";
+    private static final String NOTE = "Note";
+    private static final String ERROR_MESSAGE = "Error Message";
+    private static final double[] POWERS_OF_TEN = {
+        1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+        1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+    };
+
+    private final String symbol;
+    private final JsonParser parser;
+    private final ByteBufferFeeder feeder;
+    private final SymbolSeries.Builder series;
+
+    private int depth;
+    private String section;
+    private boolean sawTimeSeries;
+    private String message;
+    private String messageField;
+    private int day;
+    private int field;
+    private final double[] prices = new double[4];
+    private long volume;
+
+    public MonthlySeriesParser(JsonFactory jsonFactory, String symbol) {
+        this.symbol = symbol;
+        this.series = SymbolSeries.builder(symbol, 512);
+        try {
+            this.parser = jsonFactory.createNonBlockingByteBufferParser();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        this.feeder = (ByteBufferFeeder) parser.getNonBlockingInputFeeder();
+    }
+
+    /**
+     * Consumes the readable bytes of {@code chunk}; the buffer may be released afterwards.
+     */
+    public MonthlySeriesParser feed(ByteBuffer chunk) {
+        try {
+            feeder.feedInput(chunk);
+            drain();
+        } catch (IOException e) {
+            throw new IllegalStateException("Malformed response for symbol " + symbol, e);
+        }
+        return this;
+    }
+
+    /**
+     * Signals end of input and returns the parsed series, or throws if the provider
+     * answered with a rate-limit or error message, or anything else without a time series,
+     * instead of data.
+     */
+    public SymbolSeries finish() {
+        try {
+            feeder.endOfInput();
+            drain();
+            parser.close();
+        } catch (IOException e) {
+            throw new IllegalStateException("Malformed response for symbol " + symbol, e);
+        }
+        if (message != null) {
+            if (message.contains("API rate limit") || NOTE.equals(messageField)) {
+                throw new UpstreamRateLimitException("API rate limit reached: " + message, Duration.ofMinutes(1));
+            }
+            if (ERROR_MESSAGE.equals(messageField)) {
+                throw new IllegalArgumentException(message);
+            }
+        }
+        if (!sawTimeSeries) {
+            // An empty series would be cached, stored and served as fresh data
+            throw new IllegalStateException("No time series in response for " + symbol
+                + (message != null ? ": " + message : ""));
+        }
+        return series.build();
+    }
+
+    private void drain() throws IOException {
+        JsonToken token;
+        while ((token = parser.nextToken()) != null && token != JsonToken.NOT_AVAILABLE) {
+            switch (token) {
+                case START_OBJECT, START_ARRAY -> depth++;
+                case END_OBJECT, END_ARRAY -> {
+                    if (depth == 3 && TIME_SERIES.equals(section)) {
+                        series.add(day, prices[0], prices[1], prices[2], prices[3], volume);
+                    }
+                    depth--;
+                }
+                case FIELD_NAME -> fieldName();
+                case VALUE_STRING -> value();
+                default -> {
+                }
+            }
+        }
+    }
+
+    private void fieldName() throws IOException {
+        // Names come back canonicalized from the parser's symbol table, so reading them as
+        // strings does not allocate per occurrence
+        String name = parser.currentName();
+        if (depth == 1) {
+            section = name;
+            sawTimeSeries |= TIME_SERIES.equals(name);
+        } else if (depth == 2 && TIME_SERIES.equals(section)) {
+            day = parseEpochDay(name);
+            volume = 0;
+            Arrays.fill(prices, 0);
+        } else if (depth == 3 && TIME_SERIES.equals(section)) {
+            // "1. open", "2. high", "3. low", "4. close", "5. volume"
+            field = name.isEmpty() ? -1 : name.charAt(0) - '1';
+        }
+    }
+
+    private void value() throws IOException {
+        if (depth == 1 && (INFORMATION.equals(section) || NOTE.equals(section) || ERROR_MESSAGE.equals(section))) {
+            messageField = section;
+            message = parser.getText();
+        } else if (depth == 3 && TIME_SERIES.equals(section)) {
+            char[] text = parser.getTextCharacters();
+            int offset = parser.getTextOffset();
+            int length = parser.getTextLength();
+            if (field >= 0 && field < prices.length) {
+                prices[field] = parseDecimal(text, offset, length);
+            } else if (field == 4) {
+                volume = (long) parseDecimal(text, offset, length);
+            }
+        }
+    }
+
+    /**
+     * Parses a {@code yyyy-MM-dd} date without going through a formatter.
+     */
+    static int parseEpochDay(String text) {
+        if (text.length() != 10 || text.charAt(4) != '-' || text.charAt(7) != '-') {
+            return (int) LocalDate.parse(text).toEpochDay();
+        }
+        int year = digits(text, 0, 4);
+        int month = digits(text, 5, 2);
+        int dayOfMonth = digits(text, 8, 2);
+        return (int) LocalDate.of(year, month, dayOfMonth).toEpochDay();
+    }
+
+    /**
+     * Parses a plain decimal such as {@code 185.8500}. When the digits fit in 2^53 and the scale
+     * is at most 22, mantissa / 10^scale is a single correctly rounded division, which matches
+     * {@link Double#parseDouble}; anything else falls back to it.
+     */
+    static double parseDecimal(char[] text, int offset, int length) {
+        long mantissa = 0;
+        int scale = -1;
+        int end = offset + length;
+        boolean negative = length > 0 && text[offset] == '-';
+        for (int i = negative ? offset + 1 : offset; i < end; i++) {
+            char c = text[i];
+            if (c == '.' && scale < 0) {
+                scale = 0;
+            } else if (c >= '0' && c <= '9' && mantissa < (1L << 53) / 10) {
+                mantissa = mantissa * 10 + (c - '0');
+                if (scale >= 0) {
+                    scale++;
+                }
+            } else {
+                return Double.parseDouble(new String(text, offset, length));
+            }
+        }
+        if (length == 0 || scale > 22) {
+            return Double.parseDouble(new String(text, offset, length));
+        }
+        double value = scale > 0 ? mantissa / POWERS_OF_TEN[scale] : mantissa;
+        return negative ? -value : value;
+    }
+
+    private static int digits(String text, int offset, int count) {
+        int value = 0;
+        for (int i = offset; i < offset + count; i++) {
+            char c = text.charAt(i);
+            if (c < '0' || c > '9') {
+                throw new IllegalArgumentException("Invalid date " + text);
+            }
+            value = value * 10 + (c - '0');
+        }
+        return value;
+    }
+}
@@ -0,0 +1,130 @@
+package com.stockapp.backend.client;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.function.Supplier;
+
+/**
+ * Circuit breaker in front of the provider. After {@code alphavantage.circuit.failure-threshold}
+ * consecutive failed calls it opens and fails calls immediately with
+ * {@link UpstreamCircuitOpenException}, so requests fall back to cached data at once instead
+ * of each waiting out timeouts. After {@code alphavantage.circuit.open-duration} one trial
+ * call is let through: success closes the circuit, failure opens it again.
+ * <p>
+ * Quota refusals and rejected symbols say nothing about the provider's health, so they
+ * count as neither success nor failure.
+ */
+@Component
+public class UpstreamCircuitBreaker {
+    private static final Logger logger = LoggerFactory.getLogger(UpstreamCircuitBreaker.class);
+
+    enum State { CLOSED, HALF_OPEN, OPEN }
+
+    private final int failureThreshold;
+    private final Duration openDuration;
+    private final Counter rejected;
+    private State state = State.CLOSED;
+    private int consecutiveFailures;
+    private long openedAt;
+    private boolean trialInFlight;
+
+    public UpstreamCircuitBreaker(@Value("${alphavantage.circuit.failure-threshold:5}") int failureThreshold,
+                                  @Value("${alphavantage.circuit.open-duration:30s}") Duration openDuration,
+                                  MeterRegistry meterRegistry) {
+        this.failureThreshold = Math.max(1, failureThreshold);
+        this.openDuration = openDuration;
+        Gauge.builder("stockapp.upstream.circuit.state", this, breaker -> breaker.state().ordinal())
+            .description("Upstream circuit state: 0 closed, 1 half-open, 2 open")
+            .register(meterRegistry);
+        this.rejected = Counter.builder("stockapp.upstream.circuit.rejected")
+            .description("Upstream calls failed fast because the circuit was open")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Subscribes to {@code call} if the circuit allows it, recording the outcome; otherwise
+     * errors immediately without subscribing, so no quota is spent.
+     */
+    public <T> Mono<T> protect(Supplier<Mono<T>> call) {
+        return Mono.defer(() -> {
+            Duration retryAfter = acquire();
+            if (retryAfter != null) {
+                rejected.increment();
+                return Mono.error(new UpstreamCircuitOpenException(
+                    "Upstream provider unavailable, retrying in " + retryAfter.toSeconds() + "s", retryAfter));
+            }
+            return call.get()
+                .doOnSuccess(value -> onSuccess())
+                .doOnError(this::onError)
+                .doOnCancel(this::onCancel);
+        });
+    }
+
+    synchronized State state() {
+        if (state == State.OPEN && elapsedSinceOpen() >= openDuration.toNanos()) {
+            return State.HALF_OPEN;
+        }
+        return state;
+    }
+
+    /** Returns {@code null} if the call may proceed, or how long until it might. */
+    private synchronized Duration acquire() {
+        if (state == State.OPEN) {
+            long remaining = openDuration.toNanos() - elapsedSinceOpen();
+            if (remaining > 0) {
+                return Duration.ofNanos(remaining);
+            }
+            state = State.HALF_OPEN;
+        }
+        if (state == State.HALF_OPEN) {
+            if (trialInFlight) {
+                return openDuration;
+            }
+            trialInFlight = true;
+        }
+        return null;
+    }
+
+    private synchronized void onSuccess() {
+        if (state != State.CLOSED) {
+            logger.info("Upstream circuit closed after a successful trial call");
+        }
+        state = State.CLOSED;
+        consecutiveFailures = 0;
+        trialInFlight = false;
+    }
+
+    private synchronized void onError(Throwable e) {
+        if (e instanceof UpstreamUnavailableException || e instanceof IllegalArgumentException) {
+            // Not a health signal; release the trial slot so another call can probe
+            trialInFlight = false;
+            return;
+        }
+        consecutiveFailures++;
+        if (state == State.HALF_OPEN || consecutiveFailures >= failureThreshold) {
+            if (state != State.OPEN) {
+                logger.warn("Upstream circuit opened for {}s after {} consecutive failures, last: {}",
+                    openDuration.toSeconds(), consecutiveFailures, e.toString());
+            }
+            state = State.OPEN;
+            openedAt = System.nanoTime();
+        }
+        trialInFlight = false;
+    }
+
+    private synchronized void onCancel() {
+        trialInFlight = false;
+    }
+
+    private long elapsedSinceOpen() {
+        return System.nanoTime() - openedAt;
+    }
+}
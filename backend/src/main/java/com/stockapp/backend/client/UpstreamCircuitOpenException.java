@@ -0,0 +1,14 @@
+package com.stockapp.backend.client;
+
+import java.time.Duration;
+
+/**
+ * Raised without calling upstream while {@link UpstreamCircuitBreaker} considers the
+ * provider down.
+ */
+public class UpstreamCircuitOpenException extends UpstreamUnavailableException {
+
+    public UpstreamCircuitOpenException(String message, Duration retryAfter) {
+        super(message, retryAfter);
+    }
+}
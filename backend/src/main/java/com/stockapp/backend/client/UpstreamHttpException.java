@@ -0,0 +1,23 @@
+package com.stockapp.backend.client;
+
+/**
+ * Raised when the provider answers with an error status. Carries only the status: the
+ * request URL holds the API key, so it must not end up in messages, logs or responses.
+ */
+public class UpstreamHttpException extends RuntimeException {
+    private final int status;
+
+    public UpstreamHttpException(int status) {
+        super("AlphaVantage responded with HTTP " + status);
+        this.status = status;
+    }
+
+    public int getStatus() {
+        return status;
+    }
+
+    /** Whether the status suggests a retry may succeed. */
+    public boolean isTransient() {
+        return status >= 500;
+    }
+}
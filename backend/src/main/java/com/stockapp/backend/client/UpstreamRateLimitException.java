@@ -0,0 +1,14 @@
+package com.stockapp.backend.client;
+
+import java.time.Duration;
+
+/**
+ * Raised when an upstream call cannot be made within the provider quota, either because the
+ * local scheduler has no budget left or because the provider itself reported its rate limit.
+ */
+public class UpstreamRateLimitException extends UpstreamUnavailableException {
+
+    public UpstreamRateLimitException(String message, Duration retryAfter) {
+        super(message, retryAfter);
+    }
+}
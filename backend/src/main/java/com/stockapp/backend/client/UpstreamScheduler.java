@@ -0,0 +1,233 @@
+package com.stockapp.backend.client;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoSink;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Grants outbound AlphaVantage calls against local per-minute and per-day quotas.
+ * <p>
+ * Each quota is a sliding window over the times calls were granted, so no span of a minute
+ * or a day ever sees more calls than the provider allows. Calls queue until both windows have
+ * room, interactive ones ahead of background ones. A call whose expected wait exceeds
+ * {@code alphavantage.quota.max-wait}, or that arrives after the daily budget is spent, is
+ * rejected straight away with a retry-after hint instead of being sent to a provider that
+ * would refuse it.
+ */
+@Component
+public class UpstreamScheduler {
+    private static final long NANOS_PER_MINUTE = TimeUnit.MINUTES.toNanos(1);
+    private static final long NANOS_PER_DAY = TimeUnit.DAYS.toNanos(1);
+
+    private final int perMinute;
+    private final int perDay;
+    private final Duration maxWait;
+    private final LongSupplier nanoClock;
+    private final Counter rejected;
+
+    private final PriorityQueue<Ticket> queue = new PriorityQueue<>(
+        Comparator.comparing(Ticket::priority).thenComparingLong(Ticket::sequence));
+    private final int[] queuedByPriority = new int[FetchPriority.values().length];
+    private final Window minuteWindow;
+    private final Window dayWindow;
+    private long sequence;
+    private Disposable pendingDrain;
+
+    @Autowired
+    public UpstreamScheduler(@Value("${alphavantage.quota.per-minute:5}") int perMinute,
+                             @Value("${alphavantage.quota.per-day:500}") int perDay,
+                             @Value("${alphavantage.quota.max-wait:5s}") Duration maxWait,
+                             MeterRegistry meterRegistry) {
+        this(perMinute, perDay, maxWait, meterRegistry, System::nanoTime);
+    }
+
+    public UpstreamScheduler(int perMinute, int perDay, Duration maxWait, MeterRegistry meterRegistry,
+                             LongSupplier nanoClock) {
+        this.perMinute = perMinute;
+        this.perDay = perDay;
+        this.maxWait = maxWait;
+        this.nanoClock = nanoClock;
+        this.minuteWindow = new Window(perMinute, NANOS_PER_MINUTE);
+        this.dayWindow = new Window(perDay, NANOS_PER_DAY);
+
+        this.rejected = Counter.builder("stockapp.upstream.rejected")
+            .description("Upstream calls rejected locally because the quota was exhausted")
+            .register(meterRegistry);
+        for (FetchPriority priority : FetchPriority.values()) {
+            Gauge.builder("stockapp.upstream.queue.depth", this, s -> s.queued(priority))
+                .description("Upstream calls waiting for quota")
+                .tag("priority", priority.name().toLowerCase())
+                .register(meterRegistry);
+        }
+        Gauge.builder("stockapp.upstream.budget.remaining", this, s -> s.remaining(s.minuteWindow))
+            .description("Upstream calls left in the current quota window")
+            .tag("window", "minute")
+            .register(meterRegistry);
+        Gauge.builder("stockapp.upstream.budget.remaining", this, s -> s.remaining(s.dayWindow))
+            .description("Upstream calls left in the current quota window")
+            .tag("window", "day")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Runs {@code call} once quota is available for it. The returned Mono errors with
+     * {@link UpstreamRateLimitException} if the call cannot be granted within the allowed wait.
+     * Only a rate limit reported by the provider itself, coming back from {@code call}, fills
+     * the minute window; local rejections leave it alone.
+     */
+    public <T> Mono<T> submit(FetchPriority priority, Supplier<Mono<T>> call) {
+        return Mono.<Void>create(sink -> enqueue(priority, sink))
+            .then(Mono.defer(() -> call.get()
+                .doOnError(UpstreamRateLimitException.class, e -> exhaustMinute())));
+    }
+
+    private void enqueue(FetchPriority priority, MonoSink<Void> sink) {
+        synchronized (this) {
+            long now = nanoClock.getAsLong();
+            expire(now);
+            if (dayWindow.free() == 0) {
+                reject(sink, "Daily upstream quota of " + perDay + " calls exhausted", dayWindow.nanosUntilSlot(0, now));
+                return;
+            }
+            // Everything already queued at this priority or above is served first
+            int ahead = 0;
+            for (int i = 0; i <= priority.ordinal(); i++) {
+                ahead += queuedByPriority[i];
+            }
+            long wait = minuteWindow.nanosUntilSlot(ahead, now);
+            if (wait > maxWait.toNanos()) {
+                reject(sink, "Upstream quota of " + perMinute + " calls per minute exhausted", wait);
+                return;
+            }
+
+            Ticket ticket = new Ticket(priority, sequence++, sink);
+            queue.add(ticket);
+            queuedByPriority[priority.ordinal()]++;
+            sink.onCancel(() -> cancel(ticket));
+        }
+        drain();
+    }
+
+    private synchronized void cancel(Ticket ticket) {
+        if (queue.remove(ticket)) {
+            queuedByPriority[ticket.priority().ordinal()]--;
+        }
+    }
+
+    private synchronized void exhaustMinute() {
+        // The provider disagrees with our bookkeeping; trust it and treat the window as full
+        long now = nanoClock.getAsLong();
+        expire(now);
+        while (minuteWindow.free() > 0) {
+            minuteWindow.record(now);
+        }
+    }
+
+    private void drain() {
+        List<Ticket> granted = new ArrayList<>();
+        synchronized (this) {
+            long now = nanoClock.getAsLong();
+            expire(now);
+            while (!queue.isEmpty() && minuteWindow.free() > 0 && dayWindow.free() > 0) {
+                Ticket ticket = queue.poll();
+                queuedByPriority[ticket.priority().ordinal()]--;
+                minuteWindow.record(now);
+                dayWindow.record(now);
+                granted.add(ticket);
+            }
+            if (!queue.isEmpty() && (pendingDrain == null || pendingDrain.isDisposed())) {
+                long delay = Math.max(minuteWindow.nanosUntilSlot(0, now), dayWindow.nanosUntilSlot(0, now));
+                pendingDrain = Schedulers.parallel().schedule(this::drain, Math.max(delay, 1), TimeUnit.NANOSECONDS);
+            }
+        }
+        // Release outside the lock; subscribers start their calls on this thread
+        granted.forEach(ticket -> ticket.sink().success());
+    }
+
+    private void expire(long now) {
+        minuteWindow.expire(now);
+        dayWindow.expire(now);
+    }
+
+    private void reject(MonoSink<Void> sink, String message, long retryAfterNanos) {
+        rejected.increment();
+        Duration retryAfter = Duration.ofSeconds(Math.max(1, TimeUnit.NANOSECONDS.toSeconds(retryAfterNanos) + 1));
+        sink.error(new UpstreamRateLimitException(message + ", retry after " + retryAfter.toSeconds() + "s", retryAfter));
+    }
+
+    private synchronized int queued(FetchPriority priority) {
+        return queuedByPriority[priority.ordinal()];
+    }
+
+    private synchronized double remaining(Window window) {
+        expire(nanoClock.getAsLong());
+        return window.free();
+    }
+
+    private record Ticket(FetchPriority priority, long sequence, MonoSink<Void> sink) {
+    }
+
+    /**
+     * Grant times within the last {@code length} nanos, oldest first, in a ring of
+     * {@code limit} slots; a full ring means the quota for the window is spent.
+     */
+    private static final class Window {
+        private final long[] grants;
+        private final long length;
+        private int head;
+        private int size;
+
+        Window(int limit, long length) {
+            this.grants = new long[limit];
+            this.length = length;
+        }
+
+        void expire(long now) {
+            while (size > 0 && now - grants[head] >= length) {
+                head = (head + 1) % grants.length;
+                size--;
+            }
+        }
+
+        int free() {
+            return grants.length - size;
+        }
+
+        void record(long now) {
+            grants[(head + size) % grants.length] = now;
+            size++;
+        }
+
+        /**
+         * Time until the window has room for the call {@code ahead} places back in line,
+         * assuming each call ahead of it is granted as soon as it can be.
+         */
+        long nanosUntilSlot(int ahead, long now) {
+            if (ahead < free()) {
+                return 0;
+            }
+            int waiting = ahead - free();
+            long rounds = waiting / grants.length;
+            int slot = waiting % grants.length;
+            // Slots past the recorded grants go to calls granted now, which free up a window later
+            long freedAt = slot < size ? grants[(head + slot) % grants.length] + length : now + length;
+            return rounds * length + freedAt - now;
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package com.stockapp.backend.client;
+
+import java.time.Duration;
+
+/**
+ * Raised when an upstream call is refused without reaching the provider, with a hint of
+ * when it is worth trying again.
+ */
+public class UpstreamUnavailableException extends RuntimeException {
+    private final Duration retryAfter;
+
+    public UpstreamUnavailableException(String message, Duration retryAfter) {
+        super(message);
+        this.retryAfter = retryAfter;
+    }
+
+    public Duration getRetryAfter() {
+        return retryAfter;
+    }
+}
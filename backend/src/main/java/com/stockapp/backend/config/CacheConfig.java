@@ -1,22 +1,64 @@
 package com.stockapp.backend.config;
 
+import com.github.benmanes.caffeine.cache.CacheLoader;
+import com.stockapp.backend.cache.SymbolSeriesCache;
+import com.stockapp.backend.client.FetchPriority;
+import com.stockapp.backend.service.SymbolSeriesLoader;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.EnableCaching;
 import org.springframework.cache.caffeine.CaffeineCacheManager;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import com.github.benmanes.caffeine.cache.Caffeine;
-import java.util.concurrent.TimeUnit;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 
 @Configuration
 @EnableCaching
 public class CacheConfig {
     @Bean
-    public CacheManager cacheManager() {
-        CaffeineCacheManager cacheManager = new CaffeineCacheManager("stockDataCache");
+    public CacheManager cacheManager(@Value("${stockapp.cache.refresh-ahead:45m}") Duration refreshAhead,
+                                     @Value("${stockapp.cache.stale-retention:24h}") Duration staleRetention,
+                                     @Value("${stockapp.cache.max-symbols:100}") long maxSymbols,
+                                     ObjectProvider<SymbolSeriesLoader> seriesLoader) {
+        // Entries are keyed per symbol, so the size bound is a number of tickers. They are
+        // retained past the freshness TTL so a failed upstream call can fall back to them,
+        // and hot entries are reloaded in the background before that TTL is reached.
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager(SymbolSeriesCache.CACHE_NAME);
+        cacheManager.setCacheLoader(new RefreshAheadLoader(seriesLoader));
         cacheManager.setCaffeine(Caffeine.newBuilder()
-            .expireAfterWrite(1, TimeUnit.HOURS)
-            .maximumSize(100));
+            .refreshAfterWrite(refreshAhead)
+            .expireAfterWrite(staleRetention)
+            .maximumSize(maxSymbols)
+            .recordStats());
         return cacheManager;
     }
+
+    /**
+     * Only reloads existing entries; misses are left to the request path so they go
+     * through the concurrent fan-out in {@code StockService}.
+     */
+    private static class RefreshAheadLoader implements CacheLoader<Object, Object> {
+        private final ObjectProvider<SymbolSeriesLoader> seriesLoader;
+
+        RefreshAheadLoader(ObjectProvider<SymbolSeriesLoader> seriesLoader) {
+            this.seriesLoader = seriesLoader;
+        }
+
+        @Override
+        public Object load(Object key) {
+            return null;
+        }
+
+        @Override
+        public CompletableFuture<Object> asyncReload(Object key, Object oldValue, Executor executor) {
+            return seriesLoader.getObject().load((String) key, FetchPriority.BACKGROUND)
+                .<Object>map(entry -> entry)
+                .toFuture();
+        }
+    }
 }
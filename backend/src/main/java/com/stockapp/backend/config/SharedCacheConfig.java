@@ -0,0 +1,52 @@
+package com.stockapp.backend.config;
+
+import com.stockapp.backend.cache.RedisSharedTier;
+import com.stockapp.backend.cache.SharedSeriesTier;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+import java.time.Duration;
+
+/**
+ * Chooses the second cache level. Nodes only share a tier when {@code stockapp.cache.shared.enabled}
+ * is set, connecting through the standard {@code spring.data.redis.*} properties; otherwise each
+ * node keeps to its own cache.
+ */
+@Configuration
+public class SharedCacheConfig {
+
+    @Bean
+    @ConditionalOnProperty(name = "stockapp.cache.shared.enabled", havingValue = "false", matchIfMissing = true)
+    public SharedSeriesTier localOnlyTier() {
+        return SharedSeriesTier.LOCAL_ONLY;
+    }
+
+    @Configuration
+    @ConditionalOnProperty(name = "stockapp.cache.shared.enabled", havingValue = "true")
+    static class Redis {
+
+        @Bean
+        public RedisTemplate<String, byte[]> sharedSeriesTemplate(RedisConnectionFactory connectionFactory) {
+            RedisTemplate<String, byte[]> template = new RedisTemplate<>();
+            template.setConnectionFactory(connectionFactory);
+            template.setKeySerializer(RedisSerializer.string());
+            template.setValueSerializer(RedisSerializer.byteArray());
+            return template;
+        }
+
+        @Bean
+        public RedisSharedTier redisSharedTier(RedisTemplate<String, byte[]> sharedSeriesTemplate,
+                                               @Value("${stockapp.cache.shared.key-prefix:stockapp:}") String keyPrefix,
+                                               @Value("${stockapp.cache.stale-retention:24h}") Duration entryTtl,
+                                               @Value("${stockapp.cache.shared.lock-ttl:30s}") Duration lockTtl,
+                                               MeterRegistry meterRegistry) {
+            return new RedisSharedTier(sharedSeriesTemplate, keyPrefix, entryTtl, lockTtl, meterRegistry);
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package com.stockapp.backend.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.system.JavaVersion;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.env.Environment;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Threading mode. With {@code spring.threads.virtual.enabled} on Java 21+, Spring Boot runs
+ * Tomcat request handling on virtual threads, so a request blocked on upstream fetches
+ * parks instead of holding a pool thread; the blocking work done after a fetch (persisting
+ * the series) runs on virtual threads too. Otherwise both use platform thread pools.
+ */
+@Configuration
+public class ThreadingConfig {
+    private static final Logger logger = LoggerFactory.getLogger(ThreadingConfig.class);
+
+    /**
+     * Scheduler for blocking work in reactive pipelines, such as writing to the series store.
+     */
+    @Bean
+    public Scheduler blockingScheduler(Environment environment) {
+        if (Threading.VIRTUAL.isActive(environment)) {
+            return Schedulers.fromExecutor(new VirtualThreadTaskExecutor("stockapp-blocking-"));
+        }
+        return Schedulers.boundedElastic();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void reportThreadingMode(ApplicationReadyEvent event) {
+        Environment environment = event.getApplicationContext().getEnvironment();
+        boolean requested = environment.getProperty("spring.threads.virtual.enabled", Boolean.class, false);
+        if (Threading.VIRTUAL.isActive(environment)) {
+            logger.info("Serving requests on virtual threads");
+        } else if (requested) {
+            logger.warn("spring.threads.virtual.enabled is set but Java {} has no virtual threads; "
+                + "using platform threads (requires Java 21+)", JavaVersion.getJavaVersion());
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package com.stockapp.backend.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordingStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Pinning diagnostics for virtual-thread mode: streams the JDK's
+ * {@code jdk.VirtualThreadPinned} flight-recorder events (a virtual thread blocked while
+ * holding a monitor, which ties up its carrier thread) into the
+ * {@code stockapp.threads.pinned} counter, and logs the frame where each one happened.
+ * Inactive in platform-thread mode. For full stacks run with
+ * {@code -Djdk.tracePinnedThreads=full}.
+ */
+@Component
+public class VirtualThreadPinningMonitor implements SmartLifecycle {
+    private static final Logger logger = LoggerFactory.getLogger(VirtualThreadPinningMonitor.class);
+    private static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+
+    private final boolean active;
+    private final Duration threshold;
+    private final Counter pinned;
+    private RecordingStream stream;
+
+    public VirtualThreadPinningMonitor(Environment environment, MeterRegistry meterRegistry,
+                                       @Value("${stockapp.threads.pinned-threshold:20ms}") Duration threshold) {
+        this.active = Threading.VIRTUAL.isActive(environment);
+        this.threshold = threshold;
+        this.pinned = Counter.builder("stockapp.threads.pinned")
+            .description("Virtual threads that blocked while pinned to their carrier")
+            .register(meterRegistry);
+    }
+
+    @Override
+    public synchronized void start() {
+        if (!active || stream != null) {
+            return;
+        }
+        stream = new RecordingStream();
+        stream.enable(PINNED_EVENT).withThreshold(threshold).withStackTrace();
+        stream.onEvent(PINNED_EVENT, this::onPinned);
+        stream.startAsync();
+    }
+
+    @Override
+    public synchronized void stop() {
+        if (stream != null) {
+            stream.close();
+            stream = null;
+        }
+    }
+
+    @Override
+    public synchronized boolean isRunning() {
+        return stream != null;
+    }
+
+    private void onPinned(RecordedEvent event) {
+        pinned.increment();
+        List<RecordedFrame> frames = event.getStackTrace() == null ? List.of() : event.getStackTrace().getFrames();
+        RecordedFrame top = frames.stream()
+            .filter(frame -> frame.getMethod().getType().getName().startsWith("com.stockapp"))
+            .findFirst()
+            .orElse(frames.isEmpty() ? null : frames.get(0));
+        logger.warn("Virtual thread pinned for {}ms at {}", event.getDuration().toMillis(),
+            top == null ? "unknown" : top.getMethod().getType().getName() + "." + top.getMethod().getName()
+                + ":" + top.getLineNumber());
+    }
+}
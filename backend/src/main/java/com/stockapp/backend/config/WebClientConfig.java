@@ -3,49 +3,66 @@ package com.stockapp.backend.config;
 import io.netty.channel.ChannelOption;
 import io.netty.handler.timeout.ReadTimeoutHandler;
 import io.netty.handler.timeout.WriteTimeoutHandler;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.client.reactive.ReactorClientHttpConnector;
-import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
 import org.springframework.web.reactive.function.client.WebClient;
-import reactor.core.publisher.Mono;
 import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
 
 import java.time.Duration;
 import java.util.concurrent.TimeUnit;
 
 @Configuration
 public class WebClientConfig {
-    
+
+    /**
+     * Pool of upstream connections, reused across calls with keep-alive. Idle connections are
+     * closed before the provider would drop them, and waiters beyond the pending limit fail
+     * fast rather than queueing behind a slow provider. Pool usage is published as
+     * {@code reactor.netty.connection.provider.*}.
+     */
+    @Bean(destroyMethod = "dispose")
+    public ConnectionProvider upstreamConnectionProvider(
+            @Value("${alphavantage.http.max-connections:50}") int maxConnections,
+            @Value("${alphavantage.http.pending-acquire-max:200}") int pendingAcquireMax,
+            @Value("${alphavantage.http.pending-acquire-timeout:5s}") Duration pendingAcquireTimeout,
+            @Value("${alphavantage.http.max-idle-time:30s}") Duration maxIdleTime,
+            @Value("${alphavantage.http.max-life-time:5m}") Duration maxLifeTime) {
+        return ConnectionProvider.builder("alphavantage")
+            .maxConnections(maxConnections)
+            .pendingAcquireMaxCount(pendingAcquireMax)
+            .pendingAcquireTimeout(pendingAcquireTimeout)
+            .maxIdleTime(maxIdleTime)
+            .maxLifeTime(maxLifeTime)
+            .evictInBackground(Duration.ofSeconds(30))
+            .metrics(true)
+            .build();
+    }
+
     @Bean
-    public WebClient.Builder webClientBuilder() {
-        HttpClient httpClient = HttpClient.create()
-            .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, 5000)
-            .responseTimeout(Duration.ofSeconds(5))
-            .doOnConnected(conn -> 
-                conn.addHandlerLast(new ReadTimeoutHandler(5, TimeUnit.SECONDS))
-                    .addHandlerLast(new WriteTimeoutHandler(5, TimeUnit.SECONDS)));
+    public WebClient.Builder webClientBuilder(ConnectionProvider upstreamConnectionProvider,
+                                              @Value("${alphavantage.http.connect-timeout:5s}") Duration connectTimeout,
+                                              @Value("${alphavantage.http.response-timeout:5s}") Duration responseTimeout) {
+        long socketTimeoutMillis = responseTimeout.toMillis();
+        HttpClient httpClient = HttpClient.create(upstreamConnectionProvider)
+            .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) connectTimeout.toMillis())
+            .option(ChannelOption.SO_KEEPALIVE, true)
+            .keepAlive(true)
+            // Sends Accept-Encoding: gzip and inflates compressed responses transparently
+            .compress(true)
+            .responseTimeout(responseTimeout)
+            // Every AlphaVantage call goes to /query, so the URI tag has a single value
+            .metrics(true, uri -> "/query")
+            .doOnConnected(conn ->
+                conn.addHandlerLast(new ReadTimeoutHandler(socketTimeoutMillis, TimeUnit.MILLISECONDS))
+                    .addHandlerLast(new WriteTimeoutHandler(socketTimeoutMillis, TimeUnit.MILLISECONDS)));
 
         return WebClient.builder()
             .clientConnector(new ReactorClientHttpConnector(httpClient))
             .codecs(configurer -> configurer
                 .defaultCodecs()
-                .maxInMemorySize(16 * 1024 * 1024))
-            .filter(logRequest())
-            .filter(logResponse());
-    }
-
-    private ExchangeFilterFunction logRequest() {
-        return ExchangeFilterFunction.ofRequestProcessor(clientRequest -> {
-            System.out.println("Request: " + clientRequest.method() + " " + clientRequest.url());
-            return Mono.just(clientRequest);
-        });
-    }
-
-    private ExchangeFilterFunction logResponse() {
-        return ExchangeFilterFunction.ofResponseProcessor(clientResponse -> {
-            System.out.println("Response status: " + clientResponse.statusCode());
-            return Mono.just(clientResponse);
-        });
+                .maxInMemorySize(16 * 1024 * 1024));
     }
 }
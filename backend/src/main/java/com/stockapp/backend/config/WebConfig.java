@@ -1,18 +1,39 @@
 package com.stockapp.backend.config;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.CacheControl;
 import org.springframework.web.servlet.config.annotation.CorsRegistry;
 import org.springframework.web.servlet.config.annotation.ResourceHandlerRegistry;
-
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import org.springframework.web.servlet.resource.EncodedResourceResolver;
+
+import java.time.Duration;
 
 @Configuration
 public class WebConfig {
 
+    /**
+     * Replaces Boot's default Jackson converter (it is a subclass, so it takes that slot)
+     * with one that times serialization.
+     */
+    @Bean
+    public TimedJacksonMessageConverter timedJacksonMessageConverter(ObjectMapper objectMapper,
+                                                                     MeterRegistry meterRegistry) {
+        return new TimedJacksonMessageConverter(objectMapper, meterRegistry);
+    }
+
+    /**
+     * Files under {@code /assets} have a content hash in their name, so they never change and
+     * can be cached indefinitely; everything else (index.html) must be revalidated. Both are
+     * served from the {@code .br} or {@code .gz} sibling the frontend build writes, when the
+     * client accepts that encoding.
+     */
     @Bean
-    public WebMvcConfigurer webConfigurer() {
+    public WebMvcConfigurer webConfigurer(@Value("${stockapp.http.asset-max-age:365d}") Duration assetMaxAge) {
         return new WebMvcConfigurer() {
             @Override
             public void addCorsMappings(CorsRegistry registry) {
@@ -24,9 +45,16 @@ public class WebConfig {
 
             @Override
             public void addResourceHandlers(ResourceHandlerRegistry registry) {
+                registry.addResourceHandler("/assets/**")
+                        .addResourceLocations("classpath:/static/assets/")
+                        .setCacheControl(CacheControl.maxAge(assetMaxAge).cachePublic().immutable())
+                        .resourceChain(true)
+                        .addResolver(new EncodedResourceResolver());
                 registry.addResourceHandler("/**")
                         .addResourceLocations("classpath:/static/")
-                        .setCacheControl(CacheControl.noCache());
+                        .setCacheControl(CacheControl.noCache())
+                        .resourceChain(true)
+                        .addResolver(new EncodedResourceResolver());
             }
         };
     }
@@ -1,19 +1,175 @@
 package com.stockapp.backend.controller;
 
+import com.stockapp.backend.model.AnalyticsData;
+import com.stockapp.backend.model.ChartData;
+import com.stockapp.backend.model.EODData;
+import com.stockapp.backend.model.Indicator;
+import com.stockapp.backend.model.SeriesChunk;
+import com.stockapp.backend.model.SeriesField;
 import com.stockapp.backend.model.StockData;
+import com.stockapp.backend.service.LiveQuoteService;
+import com.stockapp.backend.service.SeriesQuery;
 import com.stockapp.backend.service.StockService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.codec.ServerSentEvent;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Flux;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.EnumSet;
+import java.util.List;
 
 @RestController
 @RequestMapping("/api/stocks")
 @RequiredArgsConstructor
 // Removed @CrossOrigin annotation in favor of global CORS configuration
 public class StockController {
+    private static final int MAX_WINDOW = 1000;
+
     private final StockService stockService;
+    private final LiveQuoteService liveQuoteService;
+
+    @Value("${stockapp.live.heartbeat:15s}")
+    private Duration liveHeartbeat;
+
+    @Value("${stockapp.live.max-symbols:20}")
+    private int liveMaxSymbols;
+
+    @Value("${stockapp.http.eod-max-age:5m}")
+    private Duration eodMaxAge;
 
+    /**
+     * Complete responses carry a weak ETag derived from the served series' versions and a
+     * Last-Modified of the latest upstream fetch, so a client revalidating unchanged data gets
+     * a 304 and the rows are never serialized. Responses with errors or stale series are not
+     * cacheable.
+     */
     @GetMapping("/eod")
-    public StockData getEodData(@RequestParam String symbols) {
-        return stockService.getEodData(symbols);
+    public ResponseEntity<StockData> getEodData(@RequestParam String symbols,
+                                                @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                                @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+                                                @RequestParam(required = false) Integer points,
+                                                @RequestParam(required = false) String fields) {
+        StockData stockData = stockService.getEodData(symbols, toQuery(from, to, points, fields));
+        if (!stockData.isComplete()) {
+            return ResponseEntity.ok().cacheControl(CacheControl.noStore()).body(stockData);
+        }
+        // Weak, because the same rows may go out gzipped or not
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+            .eTag("W/\"" + Long.toHexString(stockData.getVersion()) + "\"")
+            .cacheControl(CacheControl.maxAge(eodMaxAge).cachePublic());
+        if (stockData.getLastModified() != null) {
+            response.lastModified(stockData.getLastModified());
+        }
+        return response.body(stockData);
+    }
+
+    /**
+     * Streaming variant of {@code /eod}: one chunk per symbol, written as soon as that symbol
+     * is ready, as NDJSON or server-sent events depending on the Accept header.
+     */
+    @GetMapping(value = "/eod/stream", produces = {MediaType.APPLICATION_NDJSON_VALUE, MediaType.TEXT_EVENT_STREAM_VALUE})
+    public Flux<SeriesChunk> streamEodData(@RequestParam String symbols,
+                                           @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                           @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+                                           @RequestParam(required = false) Integer points,
+                                           @RequestParam(required = false) String fields) {
+        return stockService.streamEodData(symbols, toQuery(from, to, points, fields));
+    }
+
+    /**
+     * Live subscription over server-sent events: a {@code bar} event with each symbol's
+     * latest bar, then one whenever a bar changes, plus periodic comments to keep
+     * intermediaries from closing an idle connection.
+     */
+    @GetMapping(value = "/live", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public Flux<ServerSentEvent<EODData>> subscribe(@RequestParam String symbols) {
+        List<String> symbolList = StockService.normalizeSymbols(symbols);
+        if (symbolList.isEmpty()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "At least one symbol is required");
+        }
+        if (symbolList.size() > liveMaxSymbols) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                "At most " + liveMaxSymbols + " symbols can be subscribed at once");
+        }
+        Flux<ServerSentEvent<EODData>> bars = liveQuoteService.subscribe(symbolList)
+            .map(bar -> ServerSentEvent.builder(bar).event("bar").build());
+        Flux<ServerSentEvent<EODData>> heartbeats = Flux.interval(liveHeartbeat)
+            .map(tick -> ServerSentEvent.<EODData>builder().comment("keep-alive").build());
+        return Flux.merge(bars, heartbeats);
+    }
+
+    /**
+     * Chart-ready alternative to {@code /eod}: one shared date axis plus one array of the
+     * selected field per symbol, so clients can plot without regrouping rows.
+     */
+    @GetMapping("/chart")
+    public ChartData getChartData(@RequestParam String symbols,
+                                  @RequestParam(defaultValue = "close") String field,
+                                  @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                  @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+                                  @RequestParam(required = false) Integer points) {
+        SeriesQuery query = toQuery(from, to, points, null);
+        return stockService.getChartData(symbols, query, toField(field));
+    }
+
+    /**
+     * Indicators over each symbol's closing prices (moving averages, returns, rolling
+     * volatility, drawdown) and, for several symbols, the correlation of their returns.
+     */
+    @GetMapping("/analytics")
+    public AnalyticsData getAnalytics(@RequestParam String symbols,
+                                      @RequestParam(required = false) String indicators,
+                                      @RequestParam(defaultValue = "20") int window,
+                                      @RequestParam(defaultValue = "true") boolean correlation,
+                                      @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                      @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        if (window < 2 || window > MAX_WINDOW) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                "window must be between 2 and " + MAX_WINDOW);
+        }
+        EnumSet<Indicator> selected;
+        try {
+            selected = Indicator.parse(indicators);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+        return stockService.getAnalytics(symbols, toQuery(from, to, null, null), selected, window, correlation);
+    }
+
+    static SeriesField toField(String field) {
+        try {
+            EnumSet<SeriesField> selected = SeriesField.parse(field);
+            if (selected.size() != 1) {
+                throw new IllegalArgumentException("Exactly one field must be charted");
+            }
+            return selected.iterator().next();
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+    }
+
+    /**
+     * A blank {@code fields} is no projection at all, so it returns the same full rows as
+     * leaving the parameter out.
+     */
+    static SeriesQuery toQuery(LocalDate from, LocalDate to, Integer points, String fields) {
+        boolean projected = fields != null && !fields.isBlank();
+        if (from == null && to == null && points == null && !projected) {
+            return SeriesQuery.ALL;
+        }
+        try {
+            return new SeriesQuery(from, to, points, projected ? SeriesField.parse(fields) : null);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
     }
 }
@@ -0,0 +1,212 @@
+package com.stockapp.backend.ingest;
+
+import com.stockapp.backend.client.FetchPriority;
+import com.stockapp.backend.client.UpstreamUnavailableException;
+import com.stockapp.backend.service.SymbolSeriesLoader;
+import com.stockapp.backend.store.SeriesStore;
+import com.stockapp.backend.store.StoredSeries;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Keeps the {@link SymbolUniverse} in the series store without request traffic ever fetching it.
+ * <p>
+ * Symbols with nothing stored are backfilled first, in configured order; after that each symbol
+ * is refetched once its last update is {@code stockapp.ingest.update-interval} old, most overdue
+ * first. The store appends only bars newer than its tail and replaces the tail month's bar if
+ * it changed, so an update writes one or two records. At most one fetch is in flight and they
+ * start at most {@code stockapp.ingest.calls-per-minute} apart, queued behind interactive calls,
+ * which leaves the rest of the provider quota to symbols outside the universe. A symbol whose
+ * fetch fails is retried after the provider's retry-after hint, or a few minutes.
+ * <p>
+ * Every node runs the pipeline against its own store. With the shared tier enabled, a series
+ * another node fetched within the update interval is reused rather than fetched again, and
+ * concurrent updates of a symbol wait on one node's refresh lock, so each symbol is fetched
+ * upstream about once per interval however many nodes there are.
+ */
+@Component
+public class IngestionPipeline {
+    private static final Logger logger = LoggerFactory.getLogger(IngestionPipeline.class);
+    private static final Duration FAILURE_BACKOFF = Duration.ofMinutes(5);
+    private static final List<String> KINDS = List.of("backfill", "update");
+    private static final List<String> OUTCOMES = List.of("success", "reused", "failure");
+
+    private final SymbolUniverse universe;
+    private final SymbolSeriesLoader symbolSeriesLoader;
+    private final SeriesStore seriesStore;
+    private final Duration callSpacing;
+    private final Duration updateInterval;
+    private final Map<String, Counter> fetches = new HashMap<>();
+
+    private final Map<String, Instant> updatedAt = new ConcurrentHashMap<>();
+    private final Map<String, Instant> retryAt = new ConcurrentHashMap<>();
+    private final AtomicBoolean fetching = new AtomicBoolean();
+    private volatile Instant startedAt;
+    private Disposable ticks;
+
+    public IngestionPipeline(SymbolUniverse universe, SymbolSeriesLoader symbolSeriesLoader, SeriesStore seriesStore,
+                             @Value("${stockapp.ingest.calls-per-minute:3}") double callsPerMinute,
+                             MeterRegistry meterRegistry) {
+        this.universe = universe;
+        this.symbolSeriesLoader = symbolSeriesLoader;
+        this.seriesStore = seriesStore;
+        this.callSpacing = Duration.ofNanos((long) (TimeUnit.MINUTES.toNanos(1) / callsPerMinute));
+        this.updateInterval = universe.updateInterval();
+
+        if (!universe.isEnabled()) {
+            return;
+        }
+        for (String kind : KINDS) {
+            for (String outcome : OUTCOMES) {
+                fetches.put(kind + "/" + outcome, Counter.builder("stockapp.ingest.fetches")
+                    .description("Ingestion fetches by kind and outcome")
+                    .tag("kind", kind)
+                    .tag("outcome", outcome)
+                    .register(meterRegistry));
+            }
+        }
+        Gauge.builder("stockapp.ingest.symbols", updatedAt, Map::size)
+            .description("Symbols in the ingestion universe by whether their history is stored")
+            .tag("state", "backfilled")
+            .register(meterRegistry);
+        Gauge.builder("stockapp.ingest.symbols", this, p -> p.universe.symbols().size() - p.updatedAt.size())
+            .description("Symbols in the ingestion universe by whether their history is stored")
+            .tag("state", "pending")
+            .register(meterRegistry);
+        TimeGauge.builder("stockapp.ingest.lag", this, TimeUnit.SECONDS, IngestionPipeline::lagSeconds)
+            .description("How far the most overdue symbol is behind its scheduled update")
+            .register(meterRegistry);
+        for (String symbol : universe.symbols()) {
+            TimeGauge.builder("stockapp.ingest.symbol.age", this, TimeUnit.SECONDS, p -> p.ageSeconds(symbol))
+                .description("Time since the symbol was last fetched upstream")
+                .tag("symbol", symbol)
+                .register(meterRegistry);
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!universe.isEnabled() || universe.symbols().isEmpty()) {
+            return;
+        }
+        if (!seriesStore.isEnabled()) {
+            logger.warn("Series store is disabled; ingested symbols can only be served while cached");
+        }
+        startedAt = Instant.now();
+        for (String symbol : universe.symbols()) {
+            try {
+                StoredSeries stored = seriesStore.read(symbol);
+                if (stored != null && !stored.series().isEmpty()) {
+                    updatedAt.put(symbol, stored.lastWritten());
+                }
+            } catch (RuntimeException e) {
+                logger.warn("Re-ingesting {}, its stored series is unreadable: {}", symbol, e.getMessage());
+            }
+        }
+        logger.info("Ingesting {} symbols, {} to backfill, one call every {}ms", universe.symbols().size(),
+            universe.symbols().size() - updatedAt.size(), callSpacing.toMillis());
+        ticks = Flux.interval(Duration.ZERO, callSpacing).subscribe(tick -> fetchNext());
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (ticks != null) {
+            ticks.dispose();
+        }
+    }
+
+    private void fetchNext() {
+        if (!fetching.compareAndSet(false, true)) {
+            return;
+        }
+        Instant now = Instant.now();
+        String symbol = next(now);
+        if (symbol == null) {
+            fetching.set(false);
+            return;
+        }
+        String kind = updatedAt.containsKey(symbol) ? "update" : "backfill";
+        symbolSeriesLoader.fetch(symbol, FetchPriority.BACKGROUND, updateInterval)
+            .doFinally(signal -> fetching.set(false))
+            .subscribe(entry -> {
+                updatedAt.put(symbol, entry.fetchedAt());
+                retryAt.remove(symbol);
+                fetches(kind, entry.fetchedAt().isBefore(now) ? "reused" : "success").increment();
+            }, e -> {
+                Duration backoff = e instanceof UpstreamUnavailableException unavailable
+                    ? unavailable.getRetryAfter() : FAILURE_BACKOFF;
+                retryAt.put(symbol, now.plus(backoff));
+                fetches(kind, "failure").increment();
+                logger.warn("Ingestion {} of {} failed, retrying in {}s: {}", kind, symbol, backoff.toSeconds(),
+                    e.getMessage());
+            });
+    }
+
+    /**
+     * The first symbol still to backfill, else the most overdue one, skipping symbols that
+     * recently failed; {@code null} when nothing is due.
+     */
+    private String next(Instant now) {
+        String due = null;
+        Instant dueLast = null;
+        for (String symbol : universe.symbols()) {
+            Instant retry = retryAt.get(symbol);
+            if (retry != null && retry.isAfter(now)) {
+                continue;
+            }
+            Instant last = updatedAt.get(symbol);
+            if (last == null) {
+                return symbol;
+            }
+            if (!last.plus(updateInterval).isAfter(now) && (dueLast == null || last.isBefore(dueLast))) {
+                due = symbol;
+                dueLast = last;
+            }
+        }
+        return due;
+    }
+
+    private double lagSeconds() {
+        Instant started = startedAt;
+        if (started == null) {
+            return 0;
+        }
+        long now = System.currentTimeMillis();
+        long lag = 0;
+        for (String symbol : universe.symbols()) {
+            Instant last = updatedAt.get(symbol);
+            long dueAt = last == null ? started.toEpochMilli() : last.plus(updateInterval).toEpochMilli();
+            lag = Math.max(lag, now - dueAt);
+        }
+        return lag / 1000d;
+    }
+
+    private double ageSeconds(String symbol) {
+        Instant last = updatedAt.get(symbol);
+        return last == null ? Double.NaN : (System.currentTimeMillis() - last.toEpochMilli()) / 1000d;
+    }
+
+    private Counter fetches(String kind, String outcome) {
+        return fetches.get(kind + "/" + outcome);
+    }
+}
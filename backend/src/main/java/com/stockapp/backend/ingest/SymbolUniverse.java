@@ -0,0 +1,66 @@
+package com.stockapp.backend.ingest;
+
+import com.stockapp.backend.service.StockService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * The symbols kept up to date by {@link IngestionPipeline}. Requests for these are served from
+ * what the pipeline has stored and never fetch upstream inline; any other symbol is still
+ * fetched on demand. A stored series counts as fresh for {@code stockapp.ingest.update-interval}
+ * plus {@code stockapp.ingest.stale-grace}, so it is only marked stale once ingestion has
+ * fallen behind.
+ */
+@Component
+public class SymbolUniverse {
+    public static final SymbolUniverse NONE = new SymbolUniverse(false, "", Duration.ofHours(24), Duration.ZERO);
+
+    private final boolean enabled;
+    private final Set<String> symbols;
+    private final Duration updateInterval;
+    private final Duration staleAfter;
+
+    public SymbolUniverse(@Value("${stockapp.ingest.enabled:false}") boolean enabled,
+                          @Value("${stockapp.ingest.symbols:}") String symbols,
+                          @Value("${stockapp.ingest.update-interval:24h}") Duration updateInterval,
+                          @Value("${stockapp.ingest.stale-grace:6h}") Duration staleGrace) {
+        this.enabled = enabled;
+        this.symbols = enabled ? new LinkedHashSet<>(StockService.normalizeSymbols(symbols)) : Set.of();
+        this.updateInterval = updateInterval;
+        this.staleAfter = updateInterval.plus(staleGrace);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * The universe in configured order, which is also the backfill order.
+     */
+    public List<String> symbols() {
+        return List.copyOf(symbols);
+    }
+
+    public boolean isMaintained(String symbol) {
+        return symbols.contains(symbol);
+    }
+
+    /**
+     * How often each symbol is refetched.
+     */
+    public Duration updateInterval() {
+        return updateInterval;
+    }
+
+    /**
+     * Age past which a maintained series is no longer fresh.
+     */
+    public Duration staleAfter() {
+        return staleAfter;
+    }
+}
@@ -0,0 +1,19 @@
+package com.stockapp.backend.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.Data;
+
+import java.util.List;
+import java.util.Map;
+
+@Data
+public class AnalyticsData {
+    private int window;
+    private Map<String, SymbolAnalytics> symbols;
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private CorrelationMatrix correlation;
+    @JsonInclude(JsonInclude.Include.NON_EMPTY)
+    private List<SymbolError> errors;
+    @JsonInclude(JsonInclude.Include.NON_EMPTY)
+    private List<StaleSeries> stale;
+}
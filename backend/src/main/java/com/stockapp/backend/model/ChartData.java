@@ -0,0 +1,24 @@
+package com.stockapp.backend.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import lombok.Data;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Chart-ready response: one shared, ascending date axis and, per symbol, the selected
+ * field's values aligned to it. A symbol with no bar on a date has {@code null} there.
+ */
+@Data
+public class ChartData {
+    private String field;
+    private List<String> dates;
+    @JsonSerialize(contentUsing = GapArraySerializer.class)
+    private Map<String, double[]> series;
+    @JsonInclude(JsonInclude.Include.NON_EMPTY)
+    private List<SymbolError> errors;
+    @JsonInclude(JsonInclude.Include.NON_EMPTY)
+    private List<StaleSeries> stale;
+}
@@ -0,0 +1,22 @@
+package com.stockapp.backend.model;
+
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Pearson correlation of period returns, with rows and columns in {@code symbols} order. Each
+ * pair is measured over the dates those two symbols share, so cells can cover different
+ * spans; {@code null} where a pair shares too few dates.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CorrelationMatrix {
+    private List<String> symbols;
+    @JsonSerialize(contentUsing = GapArraySerializer.class)
+    private double[][] matrix;
+}
@@ -0,0 +1,30 @@
+package com.stockapp.backend.model;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+import java.io.IOException;
+
+/**
+ * Writes a {@code double[]} as a JSON array with {@code NaN} gaps written as {@code null}.
+ */
+public class GapArraySerializer extends StdSerializer<double[]> {
+
+    public GapArraySerializer() {
+        super(double[].class);
+    }
+
+    @Override
+    public void serialize(double[] values, JsonGenerator gen, SerializerProvider provider) throws IOException {
+        gen.writeStartArray(values, values.length);
+        for (double value : values) {
+            if (Double.isNaN(value)) {
+                gen.writeNull();
+            } else {
+                gen.writeNumber(value);
+            }
+        }
+        gen.writeEndArray();
+    }
+}
@@ -0,0 +1,51 @@
+package com.stockapp.backend.model;
+
+import java.util.EnumSet;
+import java.util.Locale;
+
+/**
+ * Per-symbol analytics computed on closing prices by {@code /api/stocks/analytics}.
+ */
+public enum Indicator {
+    /** Simple moving average over the window. */
+    SMA,
+    /** Exponential moving average, smoothing 2 / (window + 1), seeded with the first SMA. */
+    EMA,
+    /** Simple return from the previous bar. */
+    RETURNS,
+    /** Sample standard deviation of returns over the window. */
+    VOLATILITY,
+    /** Decline from the running peak close, as a non-positive fraction. */
+    DRAWDOWN;
+
+    public String jsonName() {
+        return name().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Parses a comma-separated list such as {@code sma,drawdown}; blank means every indicator.
+     *
+     * @throws IllegalArgumentException if a name is not a known indicator, or none is named
+     */
+    public static EnumSet<Indicator> parse(String indicators) {
+        if (indicators == null || indicators.isBlank()) {
+            return EnumSet.allOf(Indicator.class);
+        }
+        EnumSet<Indicator> selected = EnumSet.noneOf(Indicator.class);
+        for (String indicator : indicators.split(",")) {
+            String name = indicator.trim();
+            if (!name.isEmpty()) {
+                try {
+                    selected.add(valueOf(name.toUpperCase(Locale.ROOT)));
+                } catch (IllegalArgumentException e) {
+                    throw new IllegalArgumentException("Unknown indicator '" + name + "', expected one of "
+                        + EnumSet.allOf(Indicator.class).stream().map(Indicator::jsonName).toList());
+                }
+            }
+        }
+        if (selected.isEmpty()) {
+            throw new IllegalArgumentException("No indicator named in '" + indicators + "'");
+        }
+        return selected;
+    }
+}
@@ -0,0 +1,23 @@
+package com.stockapp.backend.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * One symbol's part of a streamed EOD response: its rows, or the error that prevented them,
+ * plus a staleness marker when the rows come from an expired cache entry.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class SeriesChunk {
+    private String symbol;
+    private List<EODData> data;
+    private StaleSeries stale;
+    private SymbolError error;
+}
@@ -0,0 +1,47 @@
+package com.stockapp.backend.model;
+
+import java.util.EnumSet;
+import java.util.Locale;
+
+/**
+ * Per-bar value fields that can be selected with the {@code fields} projection on
+ * {@code /api/stocks/eod}. {@code symbol} and {@code date} are always included.
+ */
+public enum SeriesField {
+    OPEN,
+    HIGH,
+    LOW,
+    CLOSE,
+    VOLUME;
+
+    public String jsonName() {
+        return name().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Parses a comma-separated projection such as {@code close,volume}; blank means every field.
+     *
+     * @throws IllegalArgumentException if a name is not a selectable field, or none is named
+     */
+    public static EnumSet<SeriesField> parse(String fields) {
+        if (fields == null || fields.isBlank()) {
+            return EnumSet.allOf(SeriesField.class);
+        }
+        EnumSet<SeriesField> selected = EnumSet.noneOf(SeriesField.class);
+        for (String field : fields.split(",")) {
+            String name = field.trim();
+            if (!name.isEmpty()) {
+                try {
+                    selected.add(valueOf(name.toUpperCase(Locale.ROOT)));
+                } catch (IllegalArgumentException e) {
+                    throw new IllegalArgumentException("Unknown field '" + name + "', expected one of "
+                        + EnumSet.allOf(SeriesField.class).stream().map(SeriesField::jsonName).toList());
+                }
+            }
+        }
+        if (selected.isEmpty()) {
+            throw new IllegalArgumentException("No field named in '" + fields + "'");
+        }
+        return selected;
+    }
+}
@@ -0,0 +1,82 @@
+package com.stockapp.backend.model;
+
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+
+import java.util.AbstractList;
+import java.util.EnumSet;
+import java.util.List;
+
+/**
+ * Read-only {@code List<EODData>} view over several {@link SymbolSeries}, in the order the
+ * series are given and newest bar first within each, matching the upstream ordering.
+ * <p>
+ * Serialization writes rows straight from the columnar arrays (see {@link SeriesRowsSerializer}),
+ * optionally limited to a projection of fields; {@link #get(int)} creates rows on demand for
+ * any other reader.
+ */
+@JsonSerialize(using = SeriesRowsSerializer.class)
+public class SeriesRows extends AbstractList<EODData> {
+    private final List<SymbolSeries> series;
+    private final EnumSet<SeriesField> fields;
+    private final int[] offsets;
+
+    public SeriesRows(List<SymbolSeries> series) {
+        this(series, null);
+    }
+
+    /**
+     * @param fields the value fields to serialize, or {@code null} for the full {@link EODData} shape
+     */
+    public SeriesRows(List<SymbolSeries> series, EnumSet<SeriesField> fields) {
+        this.series = List.copyOf(series);
+        this.fields = fields;
+        this.offsets = new int[this.series.size() + 1];
+        for (int i = 0; i < this.series.size(); i++) {
+            offsets[i + 1] = offsets[i] + this.series.get(i).size();
+        }
+    }
+
+    public List<SymbolSeries> series() {
+        return series;
+    }
+
+    public EnumSet<SeriesField> fields() {
+        return fields;
+    }
+
+    /**
+     * Content version of these rows: changes whenever any series' bars, the set of symbols or
+     * the projected fields change, so it can validate a cached response.
+     */
+    public long version() {
+        long v = -1;
+        if (fields != null) {
+            v = 0;
+            for (SeriesField field : fields) {
+                v |= 1L << field.ordinal();
+            }
+        }
+        for (SymbolSeries s : series) {
+            v = 31 * (31 * v + s.symbol().hashCode()) + s.version();
+        }
+        return v;
+    }
+
+    @Override
+    public EODData get(int index) {
+        if (index < 0 || index >= size()) {
+            throw new IndexOutOfBoundsException(index);
+        }
+        int segment = 0;
+        while (offsets[segment + 1] <= index) {
+            segment++;
+        }
+        SymbolSeries symbolSeries = series.get(segment);
+        return symbolSeries.toEODData(symbolSeries.size() - 1 - (index - offsets[segment]));
+    }
+
+    @Override
+    public int size() {
+        return offsets[offsets.length - 1];
+    }
+}
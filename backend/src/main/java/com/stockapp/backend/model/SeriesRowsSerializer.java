@@ -0,0 +1,63 @@
+package com.stockapp.backend.model;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.EnumSet;
+
+/**
+ * Writes {@link SeriesRows} as the flat {@code data} array of {@code /api/stocks/eod} without
+ * creating an {@link EODData} per bar. Without a projection the row shape is identical to
+ * EODData's bean serialization, including the fields AlphaVantage never fills.
+ */
+public class SeriesRowsSerializer extends StdSerializer<SeriesRows> {
+
+    public SeriesRowsSerializer() {
+        super(SeriesRows.class);
+    }
+
+    @Override
+    public void serialize(SeriesRows rows, JsonGenerator gen, SerializerProvider provider) throws IOException {
+        EnumSet<SeriesField> fields = rows.fields();
+        gen.writeStartArray(rows, rows.size());
+        for (SymbolSeries series : rows.series()) {
+            for (int i = series.size() - 1; i >= 0; i--) {
+                gen.writeStartObject();
+                gen.writeStringField("symbol", series.symbol());
+                if (fields == null) {
+                    gen.writeNullField("exchange");
+                }
+                gen.writeStringField("date", LocalDate.ofEpochDay(series.epochDay(i)) + "T00:00:00Z");
+                if (fields == null || fields.contains(SeriesField.OPEN)) {
+                    gen.writeNumberField("open", series.open(i));
+                }
+                if (fields == null || fields.contains(SeriesField.HIGH)) {
+                    gen.writeNumberField("high", series.high(i));
+                }
+                if (fields == null || fields.contains(SeriesField.LOW)) {
+                    gen.writeNumberField("low", series.low(i));
+                }
+                if (fields == null || fields.contains(SeriesField.CLOSE)) {
+                    gen.writeNumberField("close", series.close(i));
+                }
+                if (fields == null || fields.contains(SeriesField.VOLUME)) {
+                    gen.writeNumberField("volume", (double) series.volume(i));
+                }
+                if (fields == null) {
+                    gen.writeNumberField("adj_high", 0.0);
+                    gen.writeNumberField("adj_low", 0.0);
+                    gen.writeNumberField("adj_close", 0.0);
+                    gen.writeNumberField("adj_open", 0.0);
+                    gen.writeNumberField("adj_volume", 0.0);
+                    gen.writeNumberField("split_factor", 0.0);
+                    gen.writeNumberField("dividend", 0.0);
+                }
+                gen.writeEndObject();
+            }
+        }
+        gen.writeEndArray();
+    }
+}
@@ -0,0 +1,16 @@
+package com.stockapp.backend.model;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class StaleSeries {
+    private String symbol;
+    @JsonProperty("as_of")
+    private String asOf;
+    private String reason;
+}
@@ -1,11 +1,32 @@
 package com.stockapp.backend.model;
 
-import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.Data;
+
+import java.time.Instant;
 import java.util.List;
 
 @Data
 public class StockData {
     private Pagination pagination;
     private List<EODData> data;
+    @JsonInclude(JsonInclude.Include.NON_EMPTY)
+    private List<SymbolError> errors;
+    @JsonInclude(JsonInclude.Include.NON_EMPTY)
+    private List<StaleSeries> stale;
+
+    /** Content version of {@link #data}, for response validators; not serialized. */
+    @JsonIgnore
+    private long version;
+
+    /** When the most recently fetched of the served series was fetched upstream; not serialized. */
+    @JsonIgnore
+    private Instant lastModified;
+
+    /** Whether every symbol was served fresh, so the response may be cached as a whole. */
+    @JsonIgnore
+    public boolean isComplete() {
+        return (errors == null || errors.isEmpty()) && (stale == null || stale.isEmpty());
+    }
 }
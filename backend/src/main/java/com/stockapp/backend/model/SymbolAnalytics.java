@@ -0,0 +1,18 @@
+package com.stockapp.backend.model;
+
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import lombok.Data;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Indicator values for one symbol, each aligned with {@code dates}; {@code null} where an
+ * indicator is not yet defined (for example before a moving average's window fills).
+ */
+@Data
+public class SymbolAnalytics {
+    private List<String> dates;
+    @JsonSerialize(contentUsing = GapArraySerializer.class)
+    private Map<String, double[]> indicators;
+}
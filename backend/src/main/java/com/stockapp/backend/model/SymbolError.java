@@ -0,0 +1,18 @@
+package com.stockapp.backend.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SymbolError {
+    private String symbol;
+    private String message;
+    @JsonProperty("retry_after")
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Long retryAfterSeconds;
+}
@@ -0,0 +1,304 @@
+package com.stockapp.backend.model;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+
+/**
+ * One symbol's bars held column-wise in parallel primitive arrays, oldest bar first.
+ * <p>
+ * This is the form series are cached and stored in; {@link EODData} rows are only
+ * materialized when a response is serialized (see {@link SeriesRows}). Instances are
+ * immutable once built.
+ */
+public final class SymbolSeries {
+    private static final int ARRAY_HEADER_BYTES = 16;
+    private static final int OBJECT_BYTES = 48;
+
+    private final String symbol;
+    private final int[] epochDays;
+    private final double[] open;
+    private final double[] high;
+    private final double[] low;
+    private final double[] close;
+    private final long[] volume;
+    private long version;
+
+    private SymbolSeries(String symbol, int[] epochDays, double[] open, double[] high, double[] low,
+                         double[] close, long[] volume) {
+        this.symbol = symbol;
+        this.epochDays = epochDays;
+        this.open = open;
+        this.high = high;
+        this.low = low;
+        this.close = close;
+        this.volume = volume;
+    }
+
+    public static Builder builder(String symbol, int expectedSize) {
+        return new Builder(symbol, expectedSize);
+    }
+
+    public String symbol() {
+        return symbol;
+    }
+
+    public int size() {
+        return epochDays.length;
+    }
+
+    public boolean isEmpty() {
+        return epochDays.length == 0;
+    }
+
+    public int epochDay(int i) {
+        return epochDays[i];
+    }
+
+    public double open(int i) {
+        return open[i];
+    }
+
+    public double high(int i) {
+        return high[i];
+    }
+
+    public double low(int i) {
+        return low[i];
+    }
+
+    public double close(int i) {
+        return close[i];
+    }
+
+    public long volume(int i) {
+        return volume[i];
+    }
+
+    public double value(SeriesField field, int i) {
+        return switch (field) {
+            case OPEN -> open[i];
+            case HIGH -> high[i];
+            case LOW -> low[i];
+            case CLOSE -> close[i];
+            case VOLUME -> volume[i];
+        };
+    }
+
+    /**
+     * Expands bar {@code i} into the row shape served by {@code /api/stocks/eod}.
+     */
+    public EODData toEODData(int i) {
+        EODData bar = new EODData();
+        bar.setSymbol(symbol);
+        bar.setDate(LocalDate.ofEpochDay(epochDays[i]) + "T00:00:00Z");
+        bar.setOpen(open[i]);
+        bar.setHigh(high[i]);
+        bar.setLow(low[i]);
+        bar.setClose(close[i]);
+        bar.setVolume(volume[i]);
+        return bar;
+    }
+
+    /**
+     * Bars dated within {@code [fromDay, toDay]} (epoch days, inclusive); returns this series
+     * when the range covers it entirely.
+     */
+    public SymbolSeries between(int fromDay, int toDay) {
+        int start = lowerBound(fromDay);
+        int end = lowerBound(toDay == Integer.MAX_VALUE ? toDay : toDay + 1);
+        if (start == 0 && end == size()) {
+            return this;
+        }
+        end = Math.max(start, end);
+        return new SymbolSeries(symbol, Arrays.copyOfRange(epochDays, start, end), Arrays.copyOfRange(open, start, end),
+            Arrays.copyOfRange(high, start, end), Arrays.copyOfRange(low, start, end),
+            Arrays.copyOfRange(close, start, end), Arrays.copyOfRange(volume, start, end));
+    }
+
+    /**
+     * Reduces the series to at most {@code maxPoints} bars by merging runs of consecutive bars
+     * into one OHLC bar each: first open, highest high, lowest low, last close, summed volume,
+     * dated at the run's last bar. Returns this series if it is already small enough.
+     */
+    public SymbolSeries downsample(int maxPoints) {
+        int n = size();
+        if (maxPoints <= 0 || n <= maxPoints) {
+            return this;
+        }
+        int buckets = maxPoints;
+        Builder builder = new Builder(symbol, buckets);
+        for (int b = 0; b < buckets; b++) {
+            // Spread the remainder so bucket sizes differ by at most one
+            int start = (int) ((long) b * n / buckets);
+            int end = (int) ((long) (b + 1) * n / buckets);
+            double h = high[start];
+            double l = low[start];
+            long v = 0;
+            for (int i = start; i < end; i++) {
+                h = Math.max(h, high[i]);
+                l = Math.min(l, low[i]);
+                v += volume[i];
+            }
+            builder.add(epochDays[end - 1], open[start], h, l, close[end - 1], v);
+        }
+        return builder.build();
+    }
+
+    private int lowerBound(int epochDay) {
+        int lo = 0;
+        int hi = epochDays.length;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (epochDays[mid] < epochDay) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    /**
+     * Content version of the series: equal series have equal versions, and any change to a
+     * bar changes it with overwhelming probability. Computed once on first use.
+     */
+    public long version() {
+        long v = version;
+        if (v == 0) {
+            v = 0xcbf29ce484222325L;
+            for (int i = 0; i < epochDays.length; i++) {
+                v = mix(v, epochDays[i]);
+                v = mix(v, Double.doubleToLongBits(open[i]));
+                v = mix(v, Double.doubleToLongBits(high[i]));
+                v = mix(v, Double.doubleToLongBits(low[i]));
+                v = mix(v, Double.doubleToLongBits(close[i]));
+                v = mix(v, volume[i]);
+            }
+            v = v == 0 ? 1 : v;
+            version = v;
+        }
+        return v;
+    }
+
+    private static long mix(long hash, long value) {
+        hash ^= value;
+        hash *= 0x100000001b3L;
+        return hash ^ (hash >>> 29);
+    }
+
+    /**
+     * Approximate heap retained by this series, excluding the shared symbol string.
+     */
+    public long retainedBytes() {
+        long n = epochDays.length;
+        return OBJECT_BYTES + 6L * ARRAY_HEADER_BYTES + n * (Integer.BYTES + 4L * Double.BYTES + Long.BYTES);
+    }
+
+    /**
+     * Accumulates bars in any order; {@link #build()} sorts them by date.
+     */
+    public static final class Builder {
+        private final String symbol;
+        private int size;
+        private boolean sorted = true;
+        private int[] epochDays;
+        private double[] open;
+        private double[] high;
+        private double[] low;
+        private double[] close;
+        private long[] volume;
+
+        private Builder(String symbol, int expectedSize) {
+            int capacity = Math.max(expectedSize, 16);
+            this.symbol = symbol;
+            this.epochDays = new int[capacity];
+            this.open = new double[capacity];
+            this.high = new double[capacity];
+            this.low = new double[capacity];
+            this.close = new double[capacity];
+            this.volume = new long[capacity];
+        }
+
+        public Builder add(int epochDay, double o, double h, double l, double c, long v) {
+            if (size == epochDays.length) {
+                grow();
+            }
+            if (size > 0 && epochDay < epochDays[size - 1]) {
+                sorted = false;
+            }
+            epochDays[size] = epochDay;
+            open[size] = o;
+            high[size] = h;
+            low[size] = l;
+            close[size] = c;
+            volume[size] = v;
+            size++;
+            return this;
+        }
+
+        public SymbolSeries build() {
+            if (sorted) {
+                return new SymbolSeries(symbol, Arrays.copyOf(epochDays, size), Arrays.copyOf(open, size),
+                    Arrays.copyOf(high, size), Arrays.copyOf(low, size), Arrays.copyOf(close, size),
+                    Arrays.copyOf(volume, size));
+            }
+            if (isDescending()) {
+                return new SymbolSeries(symbol, reversed(epochDays), reversed(open), reversed(high),
+                    reversed(low), reversed(close), reversed(volume));
+            }
+            Integer[] order = new Integer[size];
+            for (int i = 0; i < size; i++) {
+                order[i] = i;
+            }
+            Arrays.sort(order, (a, b) -> Integer.compare(epochDays[a], epochDays[b]));
+            Builder sortedBuilder = new Builder(symbol, size);
+            for (int i : order) {
+                sortedBuilder.add(epochDays[i], open[i], high[i], low[i], close[i], volume[i]);
+            }
+            return sortedBuilder.build();
+        }
+
+        private boolean isDescending() {
+            for (int i = 1; i < size; i++) {
+                if (epochDays[i] > epochDays[i - 1]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private void grow() {
+            int capacity = epochDays.length * 2;
+            epochDays = Arrays.copyOf(epochDays, capacity);
+            open = Arrays.copyOf(open, capacity);
+            high = Arrays.copyOf(high, capacity);
+            low = Arrays.copyOf(low, capacity);
+            close = Arrays.copyOf(close, capacity);
+            volume = Arrays.copyOf(volume, capacity);
+        }
+
+        private int[] reversed(int[] values) {
+            int[] result = new int[size];
+            for (int i = 0; i < size; i++) {
+                result[i] = values[size - 1 - i];
+            }
+            return result;
+        }
+
+        private double[] reversed(double[] values) {
+            double[] result = new double[size];
+            for (int i = 0; i < size; i++) {
+                result[i] = values[size - 1 - i];
+            }
+            return result;
+        }
+
+        private long[] reversed(long[] values) {
+            long[] result = new long[size];
+            for (int i = 0; i < size; i++) {
+                result[i] = values[size - 1 - i];
+            }
+            return result;
+        }
+    }
+}
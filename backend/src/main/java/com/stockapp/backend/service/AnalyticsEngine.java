@@ -0,0 +1,193 @@
+package com.stockapp.backend.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.stockapp.backend.model.CorrelationMatrix;
+import com.stockapp.backend.model.Indicator;
+import com.stockapp.backend.model.SymbolAnalytics;
+import com.stockapp.backend.model.SymbolSeries;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Function;
+import java.util.stream.IntStream;
+
+/**
+ * Computes indicators and return correlations over resolved series with the
+ * {@link Indicators} kernels. Results are memoized by symbol, indicator, window and the
+ * series' content {@link SymbolSeries#version() version}, so repeated requests over unchanged
+ * data are served without recomputation and a refreshed series is never served stale
+ * results. Requests with at least {@code stockapp.analytics.parallel-threshold} symbols are
+ * computed on a dedicated fork-join pool.
+ */
+@Component
+public class AnalyticsEngine {
+
+    private final int parallelThreshold;
+    private final ForkJoinPool pool;
+    private final Cache<SeriesKey, double[]> indicatorMemo;
+    private final Cache<PairKey, Double> correlationMemo;
+
+    public AnalyticsEngine(@Value("${stockapp.analytics.parallel-threshold:8}") int parallelThreshold,
+                           @Value("${stockapp.analytics.parallelism:0}") int parallelism,
+                           @Value("${stockapp.analytics.memo-size:10000}") long memoSize,
+                           MeterRegistry meterRegistry) {
+        this.parallelThreshold = Math.max(2, parallelThreshold);
+        this.pool = new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+        this.indicatorMemo = Caffeine.newBuilder().maximumSize(memoSize).recordStats().build();
+        this.correlationMemo = Caffeine.newBuilder().maximumSize(memoSize).recordStats().build();
+        CaffeineCacheMetrics.monitor(meterRegistry, indicatorMemo, "analyticsIndicators");
+        CaffeineCacheMetrics.monitor(meterRegistry, correlationMemo, "analyticsCorrelations");
+    }
+
+    @PreDestroy
+    void shutdown() {
+        pool.shutdown();
+    }
+
+    /**
+     * Computes the requested indicators for each series, keyed by symbol in input order.
+     * The returned arrays are shared with the memo and must not be modified.
+     */
+    public Map<String, SymbolAnalytics> indicators(List<SymbolSeries> series, EnumSet<Indicator> indicators, int window) {
+        List<SymbolAnalytics> computed = map(series, s -> indicators(s, indicators, window));
+        Map<String, SymbolAnalytics> bySymbol = new LinkedHashMap<>();
+        for (int i = 0; i < series.size(); i++) {
+            bySymbol.put(series.get(i).symbol(), computed.get(i));
+        }
+        return bySymbol;
+    }
+
+    /**
+     * Pairwise correlation of period returns. Each pair is measured over the dates that pair
+     * shares, so one short history does not truncate every other pair.
+     */
+    public CorrelationMatrix correlation(List<SymbolSeries> series) {
+        int k = series.size();
+        List<Columns> columns = map(series, Columns::of);
+        double[][] matrix = new double[k][k];
+        IntStream rows = IntStream.range(0, k);
+        Runnable fill = () -> (k >= parallelThreshold ? rows.parallel() : rows).forEach(i -> {
+            matrix[i][i] = 1.0;
+            for (int j = i + 1; j < k; j++) {
+                double r = correlation(series.get(i), columns.get(i), series.get(j), columns.get(j));
+                matrix[i][j] = r;
+                matrix[j][i] = r;
+            }
+        });
+        if (k >= parallelThreshold) {
+            pool.submit(fill).join();
+        } else {
+            fill.run();
+        }
+        List<String> symbols = series.stream().map(SymbolSeries::symbol).toList();
+        return new CorrelationMatrix(symbols, matrix);
+    }
+
+    private SymbolAnalytics indicators(SymbolSeries series, EnumSet<Indicator> indicators, int window) {
+        int n = series.size();
+        long version = series.version();
+        double[] closes = null;
+        Map<String, double[]> values = new LinkedHashMap<>();
+        for (Indicator indicator : indicators) {
+            SeriesKey key = new SeriesKey(series.symbol(), indicator, usesWindow(indicator) ? window : 0, version);
+            double[] out = indicatorMemo.getIfPresent(key);
+            if (out == null) {
+                if (closes == null) {
+                    closes = closes(series);
+                }
+                out = new double[n];
+                compute(indicator, series, closes, window, out);
+                indicatorMemo.put(key, out);
+            }
+            values.put(indicator.jsonName(), out);
+        }
+        List<String> dates = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            dates.add(LocalDate.ofEpochDay(series.epochDay(i)).toString());
+        }
+        SymbolAnalytics analytics = new SymbolAnalytics();
+        analytics.setDates(dates);
+        analytics.setIndicators(values);
+        return analytics;
+    }
+
+    private void compute(Indicator indicator, SymbolSeries series, double[] closes, int window, double[] out) {
+        int n = closes.length;
+        switch (indicator) {
+            case SMA -> Indicators.sma(closes, n, window, out);
+            case EMA -> Indicators.ema(closes, n, window, out);
+            case RETURNS -> Indicators.returns(closes, n, out);
+            case VOLATILITY -> {
+                // Volatility is defined over returns, which are memoized in their own right
+                SeriesKey returnsKey = new SeriesKey(series.symbol(), Indicator.RETURNS, 0, series.version());
+                double[] returns = indicatorMemo.getIfPresent(returnsKey);
+                if (returns == null) {
+                    returns = new double[n];
+                    Indicators.returns(closes, n, returns);
+                    indicatorMemo.put(returnsKey, returns);
+                }
+                Indicators.volatility(returns, n, window, out);
+            }
+            case DRAWDOWN -> Indicators.drawdown(closes, n, out);
+        }
+    }
+
+    private double correlation(SymbolSeries a, Columns columnsA, SymbolSeries b, Columns columnsB) {
+        PairKey key = new PairKey(a.symbol(), a.version(), b.symbol(), b.version());
+        Double memoized = correlationMemo.getIfPresent(key);
+        if (memoized != null) {
+            return memoized;
+        }
+        double r = Indicators.correlation(columnsA.days(), columnsA.closes(), columnsA.days().length,
+            columnsB.days(), columnsB.closes(), columnsB.days().length);
+        correlationMemo.put(key, r);
+        return r;
+    }
+
+    private <T> List<T> map(List<SymbolSeries> series, Function<SymbolSeries, T> mapper) {
+        if (series.size() >= parallelThreshold) {
+            return pool.submit(() -> series.parallelStream().map(mapper).toList()).join();
+        }
+        return series.stream().map(mapper).toList();
+    }
+
+    private static boolean usesWindow(Indicator indicator) {
+        return indicator == Indicator.SMA || indicator == Indicator.EMA || indicator == Indicator.VOLATILITY;
+    }
+
+    private static double[] closes(SymbolSeries series) {
+        double[] closes = new double[series.size()];
+        for (int i = 0; i < closes.length; i++) {
+            closes[i] = series.close(i);
+        }
+        return closes;
+    }
+
+    private record Columns(int[] days, double[] closes) {
+
+        static Columns of(SymbolSeries series) {
+            int[] days = new int[series.size()];
+            for (int i = 0; i < days.length; i++) {
+                days[i] = series.epochDay(i);
+            }
+            return new Columns(days, AnalyticsEngine.closes(series));
+        }
+    }
+
+    private record SeriesKey(String symbol, Indicator indicator, int window, long version) {
+    }
+
+    private record PairKey(String symbolA, long versionA, String symbolB, long versionB) {
+    }
+}
@@ -0,0 +1,134 @@
+package com.stockapp.backend.service;
+
+/**
+ * Single-pass indicator kernels over primitive arrays. Each kernel reads the first {@code n}
+ * values of its input and writes {@code n} values into a caller-supplied output array, so
+ * nothing is allocated per call. Positions where an indicator is not yet defined are NaN.
+ */
+public final class Indicators {
+
+    private Indicators() {
+    }
+
+    /** Simple moving average, kept as a running window sum. */
+    public static void sma(double[] values, int n, int window, double[] out) {
+        double sum = 0;
+        for (int i = 0; i < n; i++) {
+            sum += values[i];
+            if (i >= window) {
+                sum -= values[i - window];
+            }
+            out[i] = i >= window - 1 ? sum / window : Double.NaN;
+        }
+    }
+
+    /** Exponential moving average with smoothing 2 / (window + 1), seeded with the first SMA. */
+    public static void ema(double[] values, int n, int window, double[] out) {
+        double alpha = 2.0 / (window + 1);
+        double sum = 0;
+        for (int i = 0; i < n; i++) {
+            if (i < window - 1) {
+                sum += values[i];
+                out[i] = Double.NaN;
+            } else if (i == window - 1) {
+                out[i] = (sum + values[i]) / window;
+            } else {
+                out[i] = out[i - 1] + alpha * (values[i] - out[i - 1]);
+            }
+        }
+    }
+
+    /** Simple return from the previous value. */
+    public static void returns(double[] values, int n, double[] out) {
+        for (int i = 0; i < n; i++) {
+            out[i] = i == 0 || values[i - 1] == 0 ? Double.NaN : values[i] / values[i - 1] - 1;
+        }
+    }
+
+    /**
+     * Sample standard deviation of {@code returns} over a sliding window, from running sums
+     * shifted by the first return to limit cancellation. Expects the leading NaN that
+     * {@link #returns} produces, so the first defined value is at index {@code window}.
+     */
+    public static void volatility(double[] returns, int n, int window, double[] out) {
+        double shift = n > 1 ? returns[1] : 0;
+        double sum = 0;
+        double sumSquares = 0;
+        for (int i = 0; i < n; i++) {
+            if (i >= 1) {
+                double d = returns[i] - shift;
+                sum += d;
+                sumSquares += d * d;
+            }
+            if (i > window) {
+                double d = returns[i - window] - shift;
+                sum -= d;
+                sumSquares -= d * d;
+            }
+            if (i >= window && window > 1) {
+                double variance = (sumSquares - sum * sum / window) / (window - 1);
+                out[i] = Math.sqrt(Math.max(0, variance));
+            } else {
+                out[i] = Double.NaN;
+            }
+        }
+    }
+
+    /** Decline from the running peak, as a non-positive fraction of the peak. */
+    public static void drawdown(double[] values, int n, double[] out) {
+        double peak = Double.NEGATIVE_INFINITY;
+        for (int i = 0; i < n; i++) {
+            peak = Math.max(peak, values[i]);
+            out[i] = peak > 0 ? values[i] / peak - 1 : Double.NaN;
+        }
+    }
+
+    /**
+     * Pearson correlation of the period returns of two ascending series, over the dates they
+     * share. Dates are merge-joined and returns taken between consecutive shared dates, all
+     * in one pass with running mean-shifted sums. NaN if fewer than two returns are shared
+     * or either side is constant.
+     */
+    public static double correlation(int[] daysA, double[] closesA, int nA,
+                                     int[] daysB, double[] closesB, int nB) {
+        int i = 0;
+        int j = 0;
+        double prevA = Double.NaN;
+        double prevB = Double.NaN;
+        int count = 0;
+        double meanA = 0;
+        double meanB = 0;
+        double coMoment = 0;
+        double momentA = 0;
+        double momentB = 0;
+        while (i < nA && j < nB) {
+            if (daysA[i] < daysB[j]) {
+                i++;
+            } else if (daysA[i] > daysB[j]) {
+                j++;
+            } else {
+                double a = closesA[i++];
+                double b = closesB[j++];
+                if (prevA != 0 && prevB != 0 && !Double.isNaN(prevA)) {
+                    double ra = a / prevA - 1;
+                    double rb = b / prevB - 1;
+                    // Welford-style co-moment update
+                    count++;
+                    double dA = ra - meanA;
+                    meanA += dA / count;
+                    double dB = rb - meanB;
+                    meanB += dB / count;
+                    coMoment += dA * (rb - meanB);
+                    momentA += dA * (ra - meanA);
+                    momentB += dB * (rb - meanB);
+                }
+                prevA = a;
+                prevB = b;
+            }
+        }
+        if (count < 2 || momentA <= 0 || momentB <= 0) {
+            return Double.NaN;
+        }
+        return coMoment / Math.sqrt(momentA * momentB);
+    }
+}
@@ -0,0 +1,158 @@
+package com.stockapp.backend.service;
+
+import com.stockapp.backend.cache.CachedSeries;
+import com.stockapp.backend.cache.SymbolSeriesCache;
+import com.stockapp.backend.client.FetchPriority;
+import com.stockapp.backend.model.EODData;
+import com.stockapp.backend.model.SymbolSeries;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Pushes bar changes to live subscribers. Each subscribed symbol has one shared poller that
+ * reads it through the cache on {@code stockapp.live.poll-interval} (so upstream is only hit
+ * when the cache entry is due) and publishes bars that are new or changed since the last
+ * poll. Every subscriber of that symbol receives the same updates, so the upstream cost of a
+ * symbol does not grow with its audience. Polls tick on a parallel thread but read the cache
+ * on the blocking scheduler, since a lookup may go to the shared tier.
+ */
+@Service
+public class LiveQuoteService {
+    private static final Logger logger = LoggerFactory.getLogger(LiveQuoteService.class);
+
+    private final SymbolSeriesCache symbolSeriesCache;
+    private final SymbolSeriesLoader symbolSeriesLoader;
+    private final Scheduler blockingScheduler;
+    private final Duration pollInterval;
+    private final ConcurrentMap<String, Flux<EODData>> feeds = new ConcurrentHashMap<>();
+    private final AtomicInteger subscribers = new AtomicInteger();
+    private final Counter polls;
+    private final Counter published;
+    private final Counter delivered;
+
+    public LiveQuoteService(SymbolSeriesCache symbolSeriesCache, SymbolSeriesLoader symbolSeriesLoader,
+                            Scheduler blockingScheduler,
+                            @Value("${stockapp.live.poll-interval:60s}") Duration pollInterval,
+                            MeterRegistry meterRegistry) {
+        this.symbolSeriesCache = symbolSeriesCache;
+        this.symbolSeriesLoader = symbolSeriesLoader;
+        this.blockingScheduler = blockingScheduler;
+        this.pollInterval = pollInterval;
+        Gauge.builder("stockapp.live.subscribers", subscribers, AtomicInteger::get)
+            .description("Open live subscriptions")
+            .register(meterRegistry);
+        Gauge.builder("stockapp.live.symbols", feeds, ConcurrentMap::size)
+            .description("Symbols with a shared live poller")
+            .register(meterRegistry);
+        this.polls = Counter.builder("stockapp.live.polls")
+            .description("Polls made by shared live pollers")
+            .register(meterRegistry);
+        this.published = Counter.builder("stockapp.live.updates")
+            .description("Bar updates by stage: published once per symbol, delivered once per subscriber")
+            .tag("stage", "published")
+            .register(meterRegistry);
+        this.delivered = Counter.builder("stockapp.live.updates")
+            .description("Bar updates by stage: published once per symbol, delivered once per subscriber")
+            .tag("stage", "delivered")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Subscribes to the symbols. Each symbol's latest bar is sent first, then bars as they
+     * change, until the subscriber cancels.
+     */
+    public Flux<EODData> subscribe(List<String> symbols) {
+        return Flux.merge(symbols.stream().map(this::feed).toList())
+            .doOnNext(bar -> delivered.increment())
+            .doOnSubscribe(s -> subscribers.incrementAndGet())
+            .doFinally(signal -> subscribers.decrementAndGet());
+    }
+
+    private Flux<EODData> feed(String symbol) {
+        return Flux.defer(() -> feeds.computeIfAbsent(symbol, this::createFeed));
+    }
+
+    /**
+     * Builds the shared poller: it starts with the first subscriber, replays the latest bar to
+     * later ones, and stops and unregisters itself when the last subscriber leaves.
+     */
+    private Flux<EODData> createFeed(String symbol) {
+        AtomicReference<Flux<EODData>> self = new AtomicReference<>();
+        Flux<EODData> feed = Flux.defer(() -> {
+                int[] lastDay = {Integer.MIN_VALUE};
+                EODData[] lastBar = {null};
+                return Flux.interval(Duration.ZERO, pollInterval)
+                    .onBackpressureDrop()
+                    .publishOn(blockingScheduler, 1)
+                    .concatMap(tick -> poll(symbol))
+                    .concatMapIterable(series -> changedBars(series, lastDay, lastBar));
+            })
+            .doOnNext(bar -> published.increment())
+            .doFinally(signal -> feeds.remove(symbol, self.get()))
+            .replay(1)
+            .refCount();
+        self.set(feed);
+        return feed;
+    }
+
+    private Mono<SymbolSeries> poll(String symbol) {
+        polls.increment();
+        CachedSeries entry = symbolSeriesCache.get(symbol);
+        if (entry != null && symbolSeriesCache.isFresh(entry)) {
+            return Mono.just(entry.series());
+        }
+        return symbolSeriesLoader.load(symbol, FetchPriority.BACKGROUND)
+            .map(CachedSeries::series)
+            .onErrorResume(e -> {
+                logger.debug("Live poll for {} failed: {}", symbol, e.getMessage());
+                return Mono.empty();
+            });
+    }
+
+    /**
+     * Bars of {@code series} newer than the last one published, or the last one again if
+     * its values changed (the current month's bar moves until month end). On the first poll
+     * only the latest bar is returned.
+     */
+    private static List<EODData> changedBars(SymbolSeries series, int[] lastDay, EODData[] lastBar) {
+        if (series.isEmpty()) {
+            return List.of();
+        }
+        int from = series.size() - 1;
+        if (lastBar[0] != null) {
+            while (from > 0 && series.epochDay(from - 1) >= lastDay[0]) {
+                from--;
+            }
+        }
+        List<EODData> changed = new ArrayList<>();
+        for (int i = from; i < series.size(); i++) {
+            EODData bar = series.toEODData(i);
+            if (series.epochDay(i) < lastDay[0]
+                    || (series.epochDay(i) == lastDay[0] && bar.equals(lastBar[0]))) {
+                continue;
+            }
+            changed.add(bar);
+        }
+        if (!changed.isEmpty()) {
+            lastBar[0] = changed.get(changed.size() - 1);
+            lastDay[0] = series.epochDay(series.size() - 1);
+        }
+        return changed;
+    }
+}
@@ -0,0 +1,71 @@
+package com.stockapp.backend.service;
+
+import com.stockapp.backend.model.ChartData;
+import com.stockapp.backend.model.SeriesField;
+import com.stockapp.backend.model.SymbolSeries;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Aligns several date-sorted series onto one shared date axis with a k-way merge-join,
+ * in a single pass over all bars.
+ */
+public final class SeriesAlignment {
+
+    private SeriesAlignment() {
+    }
+
+    public static ChartData align(List<SymbolSeries> series, SeriesField field) {
+        int k = series.size();
+        int[] heads = new int[k];
+        int upperBound = 0;
+        for (SymbolSeries s : series) {
+            upperBound += s.size();
+        }
+        int[] axis = new int[upperBound];
+        double[][] columns = new double[k][upperBound];
+
+        int n = 0;
+        while (true) {
+            int day = Integer.MAX_VALUE;
+            for (int j = 0; j < k; j++) {
+                if (heads[j] < series.get(j).size()) {
+                    day = Math.min(day, series.get(j).epochDay(heads[j]));
+                }
+            }
+            if (day == Integer.MAX_VALUE) {
+                break;
+            }
+            axis[n] = day;
+            for (int j = 0; j < k; j++) {
+                SymbolSeries s = series.get(j);
+                if (heads[j] < s.size() && s.epochDay(heads[j]) == day) {
+                    columns[j][n] = s.value(field, heads[j]++);
+                } else {
+                    columns[j][n] = Double.NaN;
+                }
+            }
+            n++;
+        }
+
+        List<String> dates = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            dates.add(LocalDate.ofEpochDay(axis[i]).toString());
+        }
+        Map<String, double[]> values = new LinkedHashMap<>();
+        for (int j = 0; j < k; j++) {
+            values.put(series.get(j).symbol(), Arrays.copyOf(columns[j], n));
+        }
+
+        ChartData chartData = new ChartData();
+        chartData.setField(field.jsonName());
+        chartData.setDates(dates);
+        chartData.setSeries(values);
+        return chartData;
+    }
+}
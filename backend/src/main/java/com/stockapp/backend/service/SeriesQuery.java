@@ -0,0 +1,44 @@
+package com.stockapp.backend.service;
+
+import com.stockapp.backend.model.SeriesField;
+import com.stockapp.backend.model.SymbolSeries;
+
+import java.time.LocalDate;
+import java.util.EnumSet;
+
+/**
+ * Server-side shaping of a series response: an inclusive date range, an upper bound on the
+ * number of bars per symbol, and a projection of value fields. Applied to cached series, so
+ * it never costs an upstream call.
+ *
+ * @param from      first date to include, or {@code null} for no lower bound
+ * @param to        last date to include, or {@code null} for no upper bound
+ * @param maxPoints maximum bars per symbol, or {@code null} for no downsampling
+ * @param fields    value fields to return, or {@code null} for the full row shape
+ */
+public record SeriesQuery(LocalDate from, LocalDate to, Integer maxPoints, EnumSet<SeriesField> fields) {
+
+    public static final SeriesQuery ALL = new SeriesQuery(null, null, null, null);
+
+    public SeriesQuery {
+        if (from != null && to != null && from.isAfter(to)) {
+            throw new IllegalArgumentException("'from' must not be after 'to'");
+        }
+        if (maxPoints != null && maxPoints < 1) {
+            throw new IllegalArgumentException("'points' must be at least 1");
+        }
+    }
+
+    public SymbolSeries apply(SymbolSeries series) {
+        SymbolSeries result = series;
+        if (from != null || to != null) {
+            result = result.between(
+                from == null ? Integer.MIN_VALUE : (int) from.toEpochDay(),
+                to == null ? Integer.MAX_VALUE : (int) to.toEpochDay());
+        }
+        if (maxPoints != null) {
+            result = result.downsample(maxPoints);
+        }
+        return result;
+    }
+}
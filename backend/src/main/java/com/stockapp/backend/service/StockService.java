@@ -1,110 +1,247 @@
 package com.stockapp.backend.service;
 
-import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import org.springframework.cache.annotation.Cacheable;
+import com.stockapp.backend.cache.CachedSeries;
+import com.stockapp.backend.cache.SymbolSeriesCache;
+import com.stockapp.backend.client.FetchPriority;
+import com.stockapp.backend.client.UpstreamUnavailableException;
+import com.stockapp.backend.model.AnalyticsData;
+import com.stockapp.backend.model.ChartData;
+import com.stockapp.backend.model.Indicator;
+import com.stockapp.backend.model.SeriesChunk;
+import com.stockapp.backend.model.SeriesField;
 import com.stockapp.backend.model.StockData;
-import com.stockapp.backend.model.EODData;
 import com.stockapp.backend.model.Pagination;
+import com.stockapp.backend.model.SeriesRows;
+import com.stockapp.backend.model.StaleSeries;
+import com.stockapp.backend.model.SymbolError;
+import com.stockapp.backend.model.SymbolSeries;
 import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
-import org.springframework.web.reactive.function.client.WebClient;
-import org.springframework.web.util.UriComponentsBuilder;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
 
+import java.time.Duration;
+import java.time.Instant;
 import java.util.ArrayList;
-import java.util.Iterator;
+import java.util.Arrays;
+import java.util.EnumSet;
 import java.util.List;
-import java.util.Map;
+import java.util.Locale;
+import java.util.concurrent.TimeoutException;
 
 @Service
 @RequiredArgsConstructor
 public class StockService {
-    private final WebClient.Builder webClientBuilder;
-    
-    @Value("${alphavantage.api.key}")
-    private String apiKey;
-    
-    @Value("${alphavantage.api.url}")
-    private String apiUrl;
-
-    @Cacheable(value = "stockDataCache", key = "#symbols", unless="#result == null")
+    private static final Logger logger = LoggerFactory.getLogger(StockService.class);
+
+    private final SymbolSeriesLoader symbolSeriesLoader;
+    private final SymbolSeriesCache symbolSeriesCache;
+    private final AnalyticsEngine analyticsEngine;
+    private final Scheduler blockingScheduler;
+
+    /** Maximum number of upstream calls in flight for a single request. */
+    @Value("${alphavantage.fetch.concurrency:4}")
+    private int fetchConcurrency;
+
+    /** Overall budget for a request; symbols still pending when it elapses are reported as errors. */
+    @Value("${alphavantage.fetch.deadline:10s}")
+    private Duration fetchDeadline;
+
     public StockData getEodData(String symbols) {
-        long startTime = System.currentTimeMillis();
-        System.out.println("Cache MISS for symbols: " + symbols + " - Fetching from AlphaVantage API");
-        List<EODData> allData = new ArrayList<>();
-        String[] symbolArray = symbols.split(",");
-        System.out.println("Request processing started at: " + startTime + "ms");
-        
-        for (String symbol : symbolArray) {
-            String url = UriComponentsBuilder.fromHttpUrl(apiUrl)
-                .queryParam("function", "TIME_SERIES_MONTHLY")
-                .queryParam("symbol", symbol.trim())
-                .queryParam("apikey", apiKey)
-                .build()
-                .toUriString();
-                
-            System.out.println("Calling AlphaVantage API for symbol " + symbol + ": " + url);
-            
-            try {
-                String response = webClientBuilder.build()
-                    .get()
-                    .uri(url)
-                    .retrieve()
-                    .bodyToMono(String.class)
-                    .doOnNext(rawResponse -> {
-                        System.out.println("Raw API Response for " + symbol + ": " + rawResponse);
-                    })
-                    .block();
-
-                ObjectMapper mapper = new ObjectMapper();
-                JsonNode rootNode = mapper.readTree(response);
-                
-                // Check for API limit message
-                JsonNode infoNode = rootNode.get("Information");
-                if (infoNode != null && infoNode.asText().contains("API rate limit")) {
-                    throw new RuntimeException("API rate limit reached: " + infoNode.asText());
-                }
-                
-                JsonNode timeSeries = rootNode.get("Monthly Time Series");
-                
-                if (timeSeries != null) {
-                    Iterator<Map.Entry<String, JsonNode>> fields = timeSeries.fields();
-                    while (fields.hasNext()) {
-                        Map.Entry<String, JsonNode> entry = fields.next();
-                        String rawDate = entry.getKey();
-                        JsonNode data = entry.getValue();
-                        
-                        // Convert date to ISO-8601 format
-                        String isoDate = java.time.LocalDate.parse(rawDate).toString() + "T00:00:00Z";
-                        
-                        EODData eodData = new EODData();
-                        eodData.setSymbol(symbol);
-                        eodData.setDate(isoDate);
-                        eodData.setOpen(Double.parseDouble(data.get("1. open").asText()));
-                        eodData.setHigh(Double.parseDouble(data.get("2. high").asText()));
-                        eodData.setLow(Double.parseDouble(data.get("3. low").asText()));
-                        eodData.setClose(Double.parseDouble(data.get("4. close").asText()));
-                        eodData.setVolume(Double.parseDouble(data.get("5. volume").asText()));
-                        
-                        allData.add(eodData);
-                    }
-                }
-            } catch (Exception e) {
-                System.err.println("Error fetching data for symbol " + symbol + ": " + e.getMessage());
-                e.printStackTrace();
-            }
-        }
-        
+        return getEodData(symbols, SeriesQuery.ALL);
+    }
+
+    /**
+     * Serves the symbols shaped by {@code query}. Shaping is applied to the cached series, so
+     * different ranges or projections of the same symbol share one cache entry.
+     */
+    public StockData getEodData(String symbols, SeriesQuery query) {
+        ResolvedSeries resolved = resolve(symbols, query);
+
+        // Rows are expanded from the columnar series only as the response is serialized
+        SeriesRows allData = new SeriesRows(resolved.series(), query.fields());
         StockData stockData = new StockData();
         stockData.setData(allData);
-        
+        stockData.setErrors(resolved.errors());
+        stockData.setStale(resolved.stale());
+        stockData.setVersion(allData.version());
+        stockData.setLastModified(resolved.lastFetched());
+
         Pagination pagination = new Pagination();
         pagination.setCount(allData.size());
         pagination.setTotal(allData.size());
         stockData.setPagination(pagination);
-        
+
         return stockData;
     }
+
+    /**
+     * Serves one field of each symbol aligned on a shared date axis, ready to chart.
+     */
+    public ChartData getChartData(String symbols, SeriesQuery query, SeriesField field) {
+        ResolvedSeries resolved = resolve(symbols, query);
+        ChartData chartData = SeriesAlignment.align(resolved.series(), field);
+        chartData.setErrors(resolved.errors());
+        chartData.setStale(resolved.stale());
+        return chartData;
+    }
+
+    /**
+     * Computes indicators over each symbol's closes within {@code query}, plus the return
+     * correlation matrix when {@code correlation} is set and more than one symbol resolved.
+     */
+    public AnalyticsData getAnalytics(String symbols, SeriesQuery query, EnumSet<Indicator> indicators,
+                                      int window, boolean correlation) {
+        ResolvedSeries resolved = resolve(symbols, query);
+        AnalyticsData analytics = new AnalyticsData();
+        analytics.setWindow(window);
+        analytics.setSymbols(analyticsEngine.indicators(resolved.series(), indicators, window));
+        if (correlation && resolved.series().size() > 1) {
+            analytics.setCorrelation(analyticsEngine.correlation(resolved.series()));
+        }
+        analytics.setErrors(resolved.errors());
+        analytics.setStale(resolved.stale());
+        return analytics;
+    }
+
+    /**
+     * Emits each symbol's chunk as soon as it is available, in completion order rather than
+     * request order, under the same overall deadline as {@link #getEodData(String, SeriesQuery)}.
+     * Nothing is collected, so memory per subscriber is bounded by the fetch concurrency.
+     */
+    public Flux<SeriesChunk> streamEodData(String symbols, SeriesQuery query) {
+        return Flux.defer(() -> {
+            long deadline = System.nanoTime() + fetchDeadline.toNanos();
+            return Flux.fromIterable(normalizeSymbols(symbols))
+                .flatMap(symbol -> resolveSymbol(symbol, query, deadline), Math.max(1, fetchConcurrency))
+                .map(outcome -> new SeriesChunk(outcome.symbol(),
+                    outcome.series() == null ? null : new SeriesRows(List.of(outcome.series()), query.fields()),
+                    outcome.stale(), outcome.error()));
+        });
+    }
+
+    /**
+     * Resolves every symbol concurrently and returns the shaped series in request order
+     * with per-symbol errors and staleness.
+     */
+    private ResolvedSeries resolve(String symbols, SeriesQuery query) {
+        long startTime = System.currentTimeMillis();
+        long deadline = System.nanoTime() + fetchDeadline.toNanos();
+        List<String> symbolList = normalizeSymbols(symbols);
+
+        // flatMapSequential keeps request order so the response is stable regardless of completion order
+        List<SymbolOutcome> outcomes = symbolList.isEmpty() ? List.of() : Flux.fromIterable(symbolList)
+            .flatMapSequential(symbol -> resolveSymbol(symbol, query, deadline), Math.max(1, fetchConcurrency))
+            .collectList()
+            .block();
+
+        List<SymbolSeries> served = new ArrayList<>();
+        List<SymbolError> errors = new ArrayList<>();
+        List<StaleSeries> stale = new ArrayList<>();
+        Instant lastFetched = null;
+        for (SymbolOutcome outcome : outcomes) {
+            if (outcome.series() != null) {
+                served.add(outcome.series());
+                if (lastFetched == null || outcome.fetchedAt().isAfter(lastFetched)) {
+                    lastFetched = outcome.fetchedAt();
+                }
+            }
+            if (outcome.stale() != null) {
+                stale.add(outcome.stale());
+            }
+            if (outcome.error() != null) {
+                errors.add(outcome.error());
+            }
+        }
+        logger.debug("Served {} symbols ({} stale, {} failed) in {}ms", symbolList.size(),
+            stale.size(), errors.size(), System.currentTimeMillis() - startTime);
+        return new ResolvedSeries(served, errors, stale, lastFetched);
+    }
+
+    /**
+     * Serves the symbol from a fresh cache entry, or loads it within what is left of the
+     * deadline. If loading fails, the expired entry is served as stale when there is one; so is
+     * a loaded series that is still not fresh, which happens when ingestion has fallen behind.
+     * <p>
+     * A fresh local entry is served on the calling thread. Anything else may need the shared
+     * tier, which blocks, and later symbols of a request are subscribed on whatever thread the
+     * previous one finished on (a timer or an event loop), so that lookup is moved to the
+     * blocking scheduler.
+     */
+    private Mono<SymbolOutcome> resolveSymbol(String symbol, SeriesQuery query, long deadline) {
+        return Mono.defer(() -> {
+            CachedSeries local = symbolSeriesCache.getFreshLocal(symbol);
+            if (local != null) {
+                return Mono.just(SymbolOutcome.served(symbol, query, local));
+            }
+            Mono<CachedSeries> lookup = Mono.fromCallable(() -> symbolSeriesCache.get(symbol));
+            if (symbolSeriesCache.isShared()) {
+                lookup = lookup.subscribeOn(blockingScheduler);
+            }
+            return lookup
+                .flatMap(entry -> serveOrLoad(symbol, query, deadline, entry))
+                .switchIfEmpty(Mono.defer(() -> serveOrLoad(symbol, query, deadline, null)));
+        });
+    }
+
+    private Mono<SymbolOutcome> serveOrLoad(String symbol, SeriesQuery query, long deadline, CachedSeries entry) {
+        if (entry != null && symbolSeriesCache.isFresh(entry)) {
+            return Mono.just(SymbolOutcome.served(symbol, query, entry));
+        }
+        Duration remaining = Duration.ofNanos(Math.max(1, deadline - System.nanoTime()));
+        return symbolSeriesLoader.load(symbol, FetchPriority.INTERACTIVE)
+            .timeout(remaining)
+            .map(loaded -> symbolSeriesCache.isFresh(loaded)
+                ? SymbolOutcome.served(symbol, query, loaded)
+                : SymbolOutcome.stale(symbol, query, loaded, "Not updated since " + loaded.fetchedAt()))
+            .onErrorResume(e -> Mono.just(failed(symbol, query, entry, e)));
+    }
+
+    private SymbolOutcome failed(String symbol, SeriesQuery query, CachedSeries expired, Throwable e) {
+        String message = e instanceof TimeoutException
+            ? "Deadline of " + fetchDeadline.toMillis() + "ms exceeded"
+            : e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName();
+        logger.warn("Error fetching data for symbol {}: {}", symbol, message);
+        // Stale-while-revalidate: serve the last good series rather than nothing
+        if (expired != null) {
+            return SymbolOutcome.stale(symbol, query, expired, message);
+        }
+        Long retryAfter = e instanceof UpstreamUnavailableException unavailable
+            ? Math.max(1, unavailable.getRetryAfter().toSeconds())
+            : null;
+        return new SymbolOutcome(symbol, null, null, null, new SymbolError(symbol, message, retryAfter));
+    }
+
+    /**
+     * Splits a comma-separated symbol list into trimmed, upper-cased symbols,
+     * dropping blanks and duplicates while keeping first-seen order.
+     */
+    public static List<String> normalizeSymbols(String symbols) {
+        return Arrays.stream(symbols.split(","))
+            .map(symbol -> symbol.trim().toUpperCase(Locale.ROOT))
+            .filter(symbol -> !symbol.isEmpty())
+            .distinct()
+            .toList();
+    }
+
+    private record ResolvedSeries(List<SymbolSeries> series, List<SymbolError> errors, List<StaleSeries> stale,
+                                  Instant lastFetched) {
+    }
+
+    private record SymbolOutcome(String symbol, SymbolSeries series, Instant fetchedAt, StaleSeries stale,
+                                 SymbolError error) {
+
+        static SymbolOutcome served(String symbol, SeriesQuery query, CachedSeries entry) {
+            return new SymbolOutcome(symbol, query.apply(entry.series()), entry.fetchedAt(), null, null);
+        }
+
+        static SymbolOutcome stale(String symbol, SeriesQuery query, CachedSeries entry, String message) {
+            StaleSeries stale = new StaleSeries(symbol, entry.fetchedAt().toString(), message);
+            return new SymbolOutcome(symbol, query.apply(entry.series()), entry.fetchedAt(), stale, null);
+        }
+    }
 }
@@ -0,0 +1,133 @@
+package com.stockapp.backend.service;
+
+import com.stockapp.backend.cache.CachedSeries;
+import com.stockapp.backend.cache.SharedSeriesTier;
+import com.stockapp.backend.cache.SymbolFetchCoalescer;
+import com.stockapp.backend.cache.SymbolSeriesCache;
+import com.stockapp.backend.client.AlphaVantageClient;
+import com.stockapp.backend.client.FetchPriority;
+import com.stockapp.backend.client.UpstreamCircuitBreaker;
+import com.stockapp.backend.client.UpstreamScheduler;
+import com.stockapp.backend.client.UpstreamUnavailableException;
+import com.stockapp.backend.ingest.SymbolUniverse;
+import com.stockapp.backend.store.SeriesStore;
+import com.stockapp.backend.store.StoredSeries;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.function.Supplier;
+
+/**
+ * Loads a symbol's series from upstream into {@link SymbolSeriesCache}. Both request-time
+ * misses and background refreshes go through here, so they coalesce onto one call. Symbols in
+ * the {@link SymbolUniverse} are loaded from the series store instead; only the ingestion
+ * pipeline fetches those upstream.
+ */
+@Service
+@RequiredArgsConstructor
+public class SymbolSeriesLoader {
+    private static final Duration BACKFILL_RETRY = Duration.ofMinutes(1);
+
+    private final AlphaVantageClient alphaVantageClient;
+    private final SymbolSeriesCache symbolSeriesCache;
+    private final SymbolFetchCoalescer fetchCoalescer;
+    private final UpstreamScheduler upstreamScheduler;
+    private final UpstreamCircuitBreaker circuitBreaker;
+    private final SeriesStore seriesStore;
+    private final Scheduler blockingScheduler;
+    private final SharedSeriesTier sharedTier;
+    private final SymbolUniverse universe;
+
+    /** How long to wait on another node's refresh of a symbol before fetching it here regardless. */
+    @Value("${stockapp.cache.shared.lock-wait:5s}")
+    private Duration lockWait = Duration.ofSeconds(5);
+
+    @Value("${stockapp.cache.shared.lock-poll:200ms}")
+    private Duration lockPoll = Duration.ofMillis(200);
+
+    /**
+     * Loads the symbol: from the series store if the ingestion pipeline maintains it,
+     * otherwise from upstream as {@link #fetch(String, FetchPriority)} does.
+     */
+    public Mono<CachedSeries> load(String symbol, FetchPriority priority) {
+        return universe.isMaintained(symbol) ? loadStored(symbol) : fetch(symbol, priority);
+    }
+
+    /**
+     * Fetches the symbol upstream, queueing for quota at the given priority. If a fetch for the
+     * symbol is already in flight the caller joins it, whatever priority it was queued at.
+     * While the circuit breaker is open the fetch fails at once, before taking any quota.
+     * Retries of transient failures queue for quota again, like any other call.
+     */
+    public Mono<CachedSeries> fetch(String symbol, FetchPriority priority) {
+        return fetch(symbol, priority, Duration.ZERO);
+    }
+
+    /**
+     * Like {@link #fetch(String, FetchPriority)}, but a series another node fetched within
+     * {@code reuseWithin} is taken from the shared tier instead of calling upstream, and
+     * written to this node's store as if fetched here.
+     */
+    public Mono<CachedSeries> fetch(String symbol, FetchPriority priority, Duration reuseWithin) {
+        Supplier<Mono<CachedSeries>> fetch = () -> circuitBreaker
+            .protect(() -> upstreamScheduler.submit(priority, () -> alphaVantageClient.fetchMonthly(symbol))
+                .retryWhen(alphaVantageClient.retrySpec()))
+            .publishOn(blockingScheduler)
+            .doOnNext(series -> seriesStore.append(symbol, series))
+            .map(series -> symbolSeriesCache.put(symbol, series));
+        return fetchCoalescer.fetch(symbol, () -> sharedTier.isEnabled()
+            ? fetchOnce(symbol, fetch, Instant.now().minus(reuseWithin), System.nanoTime() + lockWait.toNanos())
+            : fetch.get());
+    }
+
+    private Mono<CachedSeries> loadStored(String symbol) {
+        return Mono.fromCallable(() -> {
+                StoredSeries stored = seriesStore.read(symbol);
+                if (stored == null || stored.series().isEmpty()) {
+                    throw new UpstreamUnavailableException("History for " + symbol + " is still being backfilled",
+                        BACKFILL_RETRY);
+                }
+                return symbolSeriesCache.putLocal(symbol, stored.series(), stored.lastWritten());
+            })
+            .subscribeOn(blockingScheduler);
+    }
+
+    /**
+     * Cross-node single flight: fetches under the symbol's refresh lock, or while another node
+     * holds it, waits for that node's result to appear in the shared tier. If the lock is freed
+     * without a result, or the wait runs out, this node fetches after all. A series in the
+     * shared tier fetched after {@code since} is used as this node's own and stored locally.
+     */
+    private Mono<CachedSeries> fetchOnce(String symbol, Supplier<Mono<CachedSeries>> fetch, Instant since,
+                                         long waitDeadline) {
+        return Mono.fromCallable(() -> {
+                CachedSeries refreshed = symbolSeriesCache.getSharedSince(symbol, since);
+                if (refreshed != null) {
+                    seriesStore.append(symbol, refreshed.series());
+                    return new LockAttempt(refreshed, null);
+                }
+                return new LockAttempt(null, sharedTier.tryLock(symbol));
+            })
+            .subscribeOn(blockingScheduler)
+            .flatMap(attempt -> {
+                if (attempt.refreshed() != null) {
+                    return Mono.just(attempt.refreshed());
+                }
+                if (attempt.lock() != null) {
+                    return Mono.using(attempt::lock, lock -> fetch.get(), SharedSeriesTier.RefreshLock::release);
+                }
+                if (System.nanoTime() - waitDeadline > 0) {
+                    return fetch.get();
+                }
+                return Mono.delay(lockPoll).then(Mono.defer(() -> fetchOnce(symbol, fetch, since, waitDeadline)));
+            });
+    }
+
+    private record LockAttempt(CachedSeries refreshed, SharedSeriesTier.RefreshLock lock) {
+    }
+}
@@ -0,0 +1,232 @@
+package com.stockapp.backend.store;
+
+import com.stockapp.backend.model.SymbolSeries;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Append-only on-disk store of monthly bars, one file per symbol.
+ * <p>
+ * A file is an 8-byte header (magic, record size) followed by fixed-width records in
+ * ascending date order: epoch day (int), open, high, low, close, volume (double). The
+ * current month's bar keeps changing until month end, so a newer record for the same
+ * month as the tail supersedes it; older records are never rewritten. A record left partly
+ * written by a crash is ignored on read and overwritten by the next append. Files are read
+ * back through a read-only memory mapping.
+ */
+@Component
+public class SeriesStore {
+    private static final Logger logger = LoggerFactory.getLogger(SeriesStore.class);
+
+    private static final int MAGIC = 0x53545331;
+    private static final int HEADER_BYTES = 2 * Integer.BYTES;
+    static final int RECORD_BYTES = Integer.BYTES + 5 * Double.BYTES;
+    private static final String SUFFIX = ".bin";
+    private static final Pattern SAFE_SYMBOL = Pattern.compile("[A-Z0-9.^=-]{1,16}");
+
+    private final boolean enabled;
+    private final Path directory;
+    private final ReentrantLock appendLock = new ReentrantLock();
+
+    public SeriesStore(@Value("${stockapp.store.enabled:true}") boolean enabled,
+                       @Value("${stockapp.store.dir:data/series}") Path directory) {
+        this.enabled = enabled;
+        this.directory = directory;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Symbols that have a file in the store.
+     */
+    public List<String> symbols() {
+        if (!enabled || !Files.isDirectory(directory)) {
+            return List.of();
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.map(file -> file.getFileName().toString())
+                .filter(name -> name.endsWith(SUFFIX))
+                .map(name -> name.substring(0, name.length() - SUFFIX.length()))
+                .sorted()
+                .toList();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * When the symbol's series was last written, without reading it; {@code null} if nothing
+     * is stored.
+     */
+    public Instant lastWritten(String symbol) {
+        Path file = fileFor(symbol);
+        if (file == null || !Files.exists(file)) {
+            return null;
+        }
+        try {
+            return Files.getLastModifiedTime(file).toInstant();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Reads the stored series for the symbol, or returns {@code null} if nothing is stored.
+     */
+    public StoredSeries read(String symbol) {
+        Path file = fileFor(symbol);
+        if (file == null || !Files.exists(file)) {
+            return null;
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            checkHeader(buffer, file);
+            int records = buffer.remaining() / RECORD_BYTES;
+            int[] days = new int[records];
+            double[][] values = new double[5][records];
+            int size = 0;
+            YearMonth tailMonth = null;
+            for (int r = 0; r < records; r++) {
+                int day = buffer.getInt();
+                YearMonth month = YearMonth.from(LocalDate.ofEpochDay(day));
+                int slot = month.equals(tailMonth) ? size - 1 : size++;
+                tailMonth = month;
+                days[slot] = day;
+                for (double[] column : values) {
+                    column[slot] = buffer.getDouble();
+                }
+            }
+            SymbolSeries.Builder bars = SymbolSeries.builder(symbol, size);
+            for (int i = 0; i < size; i++) {
+                bars.add(days[i], values[0][i], values[1][i], values[2][i], values[3][i], (long) values[4][i]);
+            }
+            return new StoredSeries(bars.build(), Files.getLastModifiedTime(file).toInstant());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Appends the bars of {@code series} that are newer than the stored tail, plus the tail
+     * month's bar if it has changed.
+     */
+    public void append(String symbol, SymbolSeries series) {
+        Path file = fileFor(symbol);
+        if (file == null) {
+            return;
+        }
+        // A lock rather than synchronized: file I/O under a monitor would pin a virtual thread
+        appendLock.lock();
+        try {
+            Files.createDirectories(directory);
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE,
+                    StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                long size = channel.size();
+                boolean exists = size >= HEADER_BYTES;
+                long records = exists ? (size - HEADER_BYTES) / RECORD_BYTES : 0;
+                // Writes go at the last whole record, so a record torn by a crash is overwritten
+                long end = exists ? HEADER_BYTES + records * RECORD_BYTES : 0;
+                if (size != end) {
+                    logger.warn("Dropping {} bytes of a partially written record from {}", size - end, file);
+                    channel.truncate(end);
+                }
+                ByteBuffer tail = records > 0 ? readRecord(channel, end - RECORD_BYTES) : null;
+
+                // Series are sorted ascending, so everything from the first bar to write onwards goes
+                int from = 0;
+                if (tail != null) {
+                    int tailDay = tail.getInt(0);
+                    YearMonth tailMonth = YearMonth.from(LocalDate.ofEpochDay(tailDay));
+                    while (from < series.size()
+                            && !YearMonth.from(LocalDate.ofEpochDay(series.epochDay(from))).isAfter(tailMonth)) {
+                        if (YearMonth.from(LocalDate.ofEpochDay(series.epochDay(from))).equals(tailMonth)
+                                && !sameBar(series, from, tail)) {
+                            break;
+                        }
+                        from++;
+                    }
+                }
+
+                int count = series.size() - from;
+                ByteBuffer buffer = ByteBuffer.allocate((exists ? 0 : HEADER_BYTES) + count * RECORD_BYTES);
+                if (!exists) {
+                    buffer.putInt(MAGIC).putInt(RECORD_BYTES);
+                }
+                for (int i = from; i < series.size(); i++) {
+                    buffer.putInt(series.epochDay(i))
+                        .putDouble(series.open(i))
+                        .putDouble(series.high(i))
+                        .putDouble(series.low(i))
+                        .putDouble(series.close(i))
+                        .putDouble(series.volume(i));
+                }
+                buffer.flip();
+                long position = end;
+                while (buffer.hasRemaining()) {
+                    position += channel.write(buffer, position);
+                }
+            }
+            // The modification time records when the series was last confirmed upstream
+            Files.setLastModifiedTime(file, FileTime.fromMillis(System.currentTimeMillis()));
+        } catch (IOException e) {
+            logger.warn("Could not persist series for {}: {}", symbol, e.getMessage());
+        } finally {
+            appendLock.unlock();
+        }
+    }
+
+    private Path fileFor(String symbol) {
+        if (!enabled || !SAFE_SYMBOL.matcher(symbol).matches()) {
+            return null;
+        }
+        return directory.resolve(symbol + SUFFIX);
+    }
+
+    private static ByteBuffer readRecord(FileChannel channel, long position) throws IOException {
+        ByteBuffer record = ByteBuffer.allocate(RECORD_BYTES);
+        while (record.hasRemaining()) {
+            if (channel.read(record, position + record.position()) < 0) {
+                throw new EOFException("Truncated record at " + position);
+            }
+        }
+        return record.flip();
+    }
+
+    private static void checkHeader(ByteBuffer buffer, Path file) throws IOException {
+        if (buffer.remaining() < HEADER_BYTES || buffer.getInt() != MAGIC || buffer.getInt() != RECORD_BYTES) {
+            throw new IOException("Unrecognized series file " + file);
+        }
+    }
+
+    private static boolean sameBar(SymbolSeries series, int i, ByteBuffer record) {
+        int offset = Integer.BYTES;
+        return series.epochDay(i) == record.getInt(0)
+            && series.open(i) == record.getDouble(offset)
+            && series.high(i) == record.getDouble(offset + Double.BYTES)
+            && series.low(i) == record.getDouble(offset + 2 * Double.BYTES)
+            && series.close(i) == record.getDouble(offset + 3 * Double.BYTES)
+            && series.volume(i) == record.getDouble(offset + 4 * Double.BYTES);
+    }
+}
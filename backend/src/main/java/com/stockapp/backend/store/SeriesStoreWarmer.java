@@ -0,0 +1,96 @@
+package com.stockapp.backend.store;
+
+import com.stockapp.backend.cache.SymbolSeriesCache;
+import com.stockapp.backend.client.FetchPriority;
+import com.stockapp.backend.service.SymbolSeriesLoader;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Loads stored series into {@link SymbolSeriesCache} at startup, stamped with the time they
+ * were last fetched, so a restart only refetches symbols whose stored copy is no longer fresh.
+ * <p>
+ * Only the most recently written {@code stockapp.cache.max-symbols} are loaded, since the cache
+ * would evict the rest straight away. The cache counts refresh-ahead from when an entry was
+ * put, not when it was fetched, so a warmed entry already past {@code stockapp.cache.refresh-ahead}
+ * is reloaded in the background here instead.
+ */
+@Component
+@RequiredArgsConstructor
+public class SeriesStoreWarmer {
+    private static final Logger logger = LoggerFactory.getLogger(SeriesStoreWarmer.class);
+
+    private final SeriesStore seriesStore;
+    private final SymbolSeriesCache symbolSeriesCache;
+    private final SymbolSeriesLoader symbolSeriesLoader;
+
+    @Value("${stockapp.cache.max-symbols:100}")
+    private int maxSymbols = 100;
+
+    @Value("${stockapp.cache.refresh-ahead:45m}")
+    private Duration refreshAhead = Duration.ofMinutes(45);
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmCache() {
+        if (!seriesStore.isEnabled()) {
+            return;
+        }
+        long startTime = System.currentTimeMillis();
+        Instant refreshBefore = Instant.now().minus(refreshAhead);
+        int warmed = 0;
+        List<String> refreshing = new ArrayList<>();
+        for (String symbol : newestFirst(seriesStore.symbols())) {
+            if (warmed == maxSymbols) {
+                break;
+            }
+            try {
+                StoredSeries stored = seriesStore.read(symbol);
+                if (stored != null && !stored.series().isEmpty()) {
+                    symbolSeriesCache.putLocal(symbol, stored.series(), stored.lastWritten());
+                    warmed++;
+                    if (stored.lastWritten().isBefore(refreshBefore)) {
+                        refreshing.add(symbol);
+                    }
+                }
+            } catch (RuntimeException e) {
+                logger.warn("Skipping stored series for {}: {}", symbol, e.getMessage());
+            }
+        }
+        for (String symbol : refreshing) {
+            symbolSeriesLoader.load(symbol, FetchPriority.BACKGROUND).subscribe(entry -> {
+            }, e -> logger.debug("Refresh of warmed {} failed: {}", symbol, e.getMessage()));
+        }
+        logger.info("Warmed {} symbols from the series store in {}ms, refreshing {}", warmed,
+            System.currentTimeMillis() - startTime, refreshing.size());
+    }
+
+    private List<String> newestFirst(List<String> symbols) {
+        Map<String, Instant> lastWritten = new HashMap<>();
+        for (String symbol : symbols) {
+            try {
+                Instant written = seriesStore.lastWritten(symbol);
+                if (written != null) {
+                    lastWritten.put(symbol, written);
+                }
+            } catch (RuntimeException e) {
+                logger.warn("Skipping stored series for {}: {}", symbol, e.getMessage());
+            }
+        }
+        return lastWritten.keySet().stream()
+            .sorted(Comparator.comparing(lastWritten::get, Comparator.reverseOrder()))
+            .toList();
+    }
+}
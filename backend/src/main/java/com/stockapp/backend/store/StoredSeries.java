@@ -0,0 +1,12 @@
+package com.stockapp.backend.store;
+
+import com.stockapp.backend.model.SymbolSeries;
+
+import java.time.Instant;
+
+/**
+ * A symbol's series as read back from {@link SeriesStore}, with the time it was last
+ * written from an upstream fetch.
+ */
+public record StoredSeries(SymbolSeries series, Instant lastWritten) {
+}
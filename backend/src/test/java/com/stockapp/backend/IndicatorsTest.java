@@ -0,0 +1,64 @@
+package com.stockapp.backend;
+
+import com.stockapp.backend.service.Indicators;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class IndicatorsTest {
+
+    private static final double[] CLOSES = {100, 110, 99, 121, 121};
+
+    @Test
+    public void emaIsSeededWithTheFirstSimpleAverage() {
+        double[] out = new double[CLOSES.length];
+
+        Indicators.ema(CLOSES, CLOSES.length, 3, out);
+
+        assertTrue(Double.isNaN(out[1]));
+        assertEquals(103.0, out[2], 1e-9);
+        assertEquals(112.0, out[3], 1e-9);
+        assertEquals(116.5, out[4], 1e-9);
+    }
+
+    @Test
+    public void volatilityMatchesSampleStandardDeviationOfReturns() {
+        double[] returns = new double[CLOSES.length];
+        double[] out = new double[CLOSES.length];
+        Indicators.returns(CLOSES, CLOSES.length, returns);
+
+        Indicators.volatility(returns, CLOSES.length, 3, out);
+
+        assertArrayEquals(new double[]{Double.NaN, 0.1, -0.1, 0.2222222222, 0.0}, returns, 1e-9);
+        assertTrue(Double.isNaN(out[2]));
+        assertEquals(naiveSampleStd(returns, 1, 4), out[3], 1e-12);
+        assertEquals(naiveSampleStd(returns, 2, 5), out[4], 1e-12);
+    }
+
+    @Test
+    public void correlatesReturnsOverSharedDatesOnly() {
+        int[] daysA = {1, 2, 3, 4, 5};
+        int[] daysB = {2, 3, 4, 5, 6};
+        double[] inverse = {0, 1.0 / 110, 1.0 / 99, 1.0 / 121, 1.0 / 121 * 1.01};
+
+        assertEquals(1.0, Indicators.correlation(daysA, CLOSES, 5, daysA, CLOSES, 5), 1e-12);
+        assertEquals(1.0, Indicators.correlation(daysA, CLOSES, 5, daysB, new double[]{110, 99, 121, 121, 50}, 5), 1e-12);
+        assertTrue(Indicators.correlation(daysA, CLOSES, 5, daysA, inverse, 5) < -0.9);
+        assertTrue(Double.isNaN(Indicators.correlation(daysA, CLOSES, 5, new int[]{5}, new double[]{1}, 1)));
+    }
+
+    private static double naiveSampleStd(double[] values, int from, int to) {
+        double mean = 0;
+        for (int i = from; i < to; i++) {
+            mean += values[i];
+        }
+        mean /= to - from;
+        double squares = 0;
+        for (int i = from; i < to; i++) {
+            squares += (values[i] - mean) * (values[i] - mean);
+        }
+        return Math.sqrt(squares / (to - from - 1));
+    }
+}
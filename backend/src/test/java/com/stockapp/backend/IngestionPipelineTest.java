@@ -0,0 +1,174 @@
+package com.stockapp.backend;
+
+import com.stockapp.backend.cache.SharedSeriesTier;
+import com.stockapp.backend.cache.SymbolFetchCoalescer;
+import com.stockapp.backend.cache.SymbolSeriesCache;
+import com.stockapp.backend.client.AlphaVantageClient;
+import com.stockapp.backend.client.FetchPriority;
+import com.stockapp.backend.client.UpstreamCircuitBreaker;
+import com.stockapp.backend.client.UpstreamScheduler;
+import com.stockapp.backend.client.UpstreamUnavailableException;
+import com.stockapp.backend.ingest.IngestionPipeline;
+import com.stockapp.backend.ingest.SymbolUniverse;
+import com.stockapp.backend.model.StockData;
+import com.stockapp.backend.model.SymbolSeries;
+import com.stockapp.backend.service.AnalyticsEngine;
+import com.stockapp.backend.service.SeriesQuery;
+import com.stockapp.backend.service.StockService;
+import com.stockapp.backend.service.SymbolSeriesLoader;
+import com.stockapp.backend.store.SeriesStore;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class IngestionPipelineTest {
+
+    @TempDir
+    Path directory;
+
+    private AlphaVantageClient client;
+    private MeterRegistry meterRegistry;
+    private SeriesStore store;
+    private SymbolUniverse universe;
+    private SymbolSeriesCache cache;
+    private SymbolSeriesLoader loader;
+    private IngestionPipeline pipeline;
+
+    @BeforeEach
+    public void setUp() {
+        client = mock(AlphaVantageClient.class);
+        meterRegistry = new SimpleMeterRegistry();
+        // The production retry policy, so failures reach the pipeline exactly as they would in use
+        when(client.retrySpec()).thenReturn(
+            new AlphaVantageClient(WebClient.builder(), meterRegistry, 2, Duration.ofMillis(1)).retrySpec());
+        store = new SeriesStore(true, directory);
+        universe = new SymbolUniverse(true, "AAPL,MSFT", Duration.ofHours(24), Duration.ofHours(6));
+        cache = new SymbolSeriesCache(new CaffeineCacheManager(SymbolSeriesCache.CACHE_NAME),
+            meterRegistry, Duration.ofHours(1), SharedSeriesTier.LOCAL_ONLY, universe);
+        loader = new SymbolSeriesLoader(client, cache, new SymbolFetchCoalescer(meterRegistry),
+            new UpstreamScheduler(1000, 1000, Duration.ofSeconds(1), meterRegistry),
+            new UpstreamCircuitBreaker(100, Duration.ofSeconds(30), meterRegistry),
+            store, Schedulers.boundedElastic(), SharedSeriesTier.LOCAL_ONLY, universe);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        if (pipeline != null) {
+            pipeline.stop();
+        }
+    }
+
+    @Test
+    public void backfillsOnlySymbolsWithNothingStored() {
+        store.append("MSFT", series("MSFT", 200.0));
+        when(client.fetchMonthly("AAPL")).thenReturn(Mono.just(series("AAPL", 100.0)));
+
+        start(Duration.ofHours(24));
+
+        verify(client, timeout(2000)).fetchMonthly("AAPL");
+        awaitGauge("pending", 0);
+        assertNotNull(store.read("AAPL"));
+        verify(client, never()).fetchMonthly("MSFT");
+        assertEquals(1, meterRegistry.get("stockapp.ingest.fetches")
+            .tag("kind", "backfill").tag("outcome", "success").counter().count());
+    }
+
+    @Test
+    public void refetchesSymbolsOnceTheirUpdateIsDue() throws Exception {
+        store.append("AAPL", series("AAPL", 100.0));
+        store.append("MSFT", series("MSFT", 200.0));
+        when(client.fetchMonthly("AAPL")).thenReturn(Mono.just(series("AAPL", 101.0)));
+        when(client.fetchMonthly("MSFT")).thenReturn(Mono.just(series("MSFT", 201.0)));
+
+        start(Duration.ZERO);
+
+        verify(client, timeout(2000).atLeast(1)).fetchMonthly("AAPL");
+        verify(client, timeout(2000).atLeast(1)).fetchMonthly("MSFT");
+        long deadline = System.currentTimeMillis() + 2000;
+        while (store.read("MSFT").series().close(0) != 201.0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+        }
+        assertEquals(201.0, store.read("MSFT").series().close(0));
+    }
+
+    @Test
+    public void servesMaintainedSymbolsFromTheStoreWithoutFetchingInline() {
+        store.append("AAPL", series("AAPL", 100.0));
+        StockService stockService = new StockService(loader, cache, new AnalyticsEngine(8, 2, 1000, meterRegistry),
+            Schedulers.boundedElastic());
+        ReflectionTestUtils.setField(stockService, "fetchConcurrency", 4);
+        ReflectionTestUtils.setField(stockService, "fetchDeadline", Duration.ofMillis(500));
+
+        StockData data = stockService.getEodData("AAPL", SeriesQuery.ALL);
+
+        assertEquals(1, data.getData().size());
+        verify(client, never()).fetchMonthly("AAPL");
+        assertThrows(UpstreamUnavailableException.class,
+            () -> loader.load("MSFT", FetchPriority.INTERACTIVE).block());
+        verify(client, never()).fetchMonthly("MSFT");
+    }
+
+    @Test
+    public void marksMaintainedSymbolsStaleOnceIngestionFallsBehind() throws Exception {
+        store.append("AAPL", series("AAPL", 100.0));
+        Files.setLastModifiedTime(directory.resolve("AAPL.bin"),
+            FileTime.from(Instant.now().minus(Duration.ofHours(31))));
+        StockService stockService = new StockService(loader, cache, new AnalyticsEngine(8, 2, 1000, meterRegistry),
+            Schedulers.boundedElastic());
+        ReflectionTestUtils.setField(stockService, "fetchConcurrency", 4);
+        ReflectionTestUtils.setField(stockService, "fetchDeadline", Duration.ofMillis(500));
+
+        StockData data = stockService.getEodData("AAPL", SeriesQuery.ALL);
+
+        assertEquals(1, data.getData().size());
+        assertEquals(1, data.getStale().size());
+        assertFalse(data.isComplete());
+        verify(client, never()).fetchMonthly("AAPL");
+    }
+
+    private void start(Duration updateInterval) {
+        SymbolUniverse schedule = new SymbolUniverse(true, "AAPL,MSFT", updateInterval, Duration.ofHours(6));
+        pipeline = new IngestionPipeline(schedule, loader, store, 6000, meterRegistry);
+        pipeline.start();
+    }
+
+    private void awaitGauge(String state, double expected) {
+        long deadline = System.currentTimeMillis() + 2000;
+        while (meterRegistry.get("stockapp.ingest.symbols").tag("state", state).gauge().value() != expected
+                && System.currentTimeMillis() < deadline) {
+            Thread.onSpinWait();
+        }
+        assertEquals(expected, meterRegistry.get("stockapp.ingest.symbols").tag("state", state).gauge().value());
+    }
+
+    private static SymbolSeries series(String symbol, double close) {
+        return SymbolSeries.builder(symbol, 1)
+            .add((int) LocalDate.parse("2024-01-31").toEpochDay(), close, close, close, close, 1_000)
+            .build();
+    }
+}
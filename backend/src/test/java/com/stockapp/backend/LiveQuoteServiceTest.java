@@ -0,0 +1,56 @@
+package com.stockapp.backend;
+
+import com.stockapp.backend.cache.SymbolSeriesCache;
+import com.stockapp.backend.model.EODData;
+import com.stockapp.backend.model.SymbolSeries;
+import com.stockapp.backend.service.LiveQuoteService;
+import com.stockapp.backend.service.SymbolSeriesLoader;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import reactor.core.Disposable;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+public class LiveQuoteServiceTest {
+
+    @Test
+    public void subscribersOfTheSameSymbolShareOnePoller() throws Exception {
+        MeterRegistry meterRegistry = new SimpleMeterRegistry();
+        SymbolSeriesCache cache = new SymbolSeriesCache(
+            new CaffeineCacheManager(SymbolSeriesCache.CACHE_NAME), meterRegistry, Duration.ofHours(1));
+        SymbolSeriesLoader loader = mock(SymbolSeriesLoader.class);
+        cache.put("AAPL", SymbolSeries.builder("AAPL", 2)
+            .add((int) LocalDate.parse("2024-01-31").toEpochDay(), 1, 1, 1, 10.0, 1)
+            .add((int) LocalDate.parse("2024-02-29").toEpochDay(), 1, 1, 1, 11.0, 1)
+            .build());
+        LiveQuoteService service = new LiveQuoteService(cache, loader, Schedulers.boundedElastic(), Duration.ofHours(1), meterRegistry);
+
+        List<EODData> first = new CopyOnWriteArrayList<>();
+        List<EODData> second = new CopyOnWriteArrayList<>();
+        Disposable a = service.subscribe(List.of("AAPL")).subscribe(first::add);
+        Disposable b = service.subscribe(List.of("AAPL")).subscribe(second::add);
+        Thread.sleep(200);
+
+        assertEquals(1, first.size());
+        assertEquals(11.0, first.get(0).getClose());
+        assertEquals(first, second);
+        assertEquals(1.0, meterRegistry.get("stockapp.live.polls").counter().count());
+        assertEquals(2.0, meterRegistry.get("stockapp.live.subscribers").gauge().value());
+        assertEquals(1.0, meterRegistry.get("stockapp.live.symbols").gauge().value());
+        verifyNoInteractions(loader);
+
+        a.dispose();
+        b.dispose();
+        assertEquals(0.0, meterRegistry.get("stockapp.live.symbols").gauge().value());
+    }
+}
@@ -0,0 +1,72 @@
+package com.stockapp.backend;
+
+import com.stockapp.backend.service.LiveQuoteService;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.boot.web.embedded.tomcat.TomcatServletWebServerFactory;
+import org.springframework.boot.web.server.WebServerFactoryCustomizer;
+import org.springframework.context.annotation.Bean;
+import reactor.core.publisher.Flux;
+
+import java.io.BufferedReader;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.when;
+
+/**
+ * Runs against a real Tomcat whose container-wide async timeout is cut to one second, standing
+ * in for its 30s default, to check that live subscriptions are not bound by it.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+    properties = "stockapp.live.heartbeat=200ms")
+public class LiveStreamTimeoutTest {
+
+    @LocalServerPort
+    private int port;
+
+    @MockBean
+    private LiveQuoteService liveQuoteService;
+
+    @Test
+    public void liveSubscriptionOutlivesTheContainerAsyncTimeout() throws Exception {
+        when(liveQuoteService.subscribe(anyList())).thenReturn(Flux.never());
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/stocks/live?symbols=AAPL"))
+            .header("Accept", "text/event-stream")
+            .build();
+
+        HttpResponse<InputStream> response = HttpClient.newHttpClient().send(request, HttpResponse.BodyHandlers.ofInputStream());
+        int heartbeats = 0;
+        long deadline = System.currentTimeMillis() + 3000;
+        try (BufferedReader lines = new BufferedReader(new InputStreamReader(response.body(), StandardCharsets.UTF_8))) {
+            String line;
+            while (System.currentTimeMillis() < deadline && (line = lines.readLine()) != null) {
+                if (line.startsWith(":keep-alive")) {
+                    heartbeats++;
+                }
+            }
+        }
+
+        // A stream cut at one second would have carried about five
+        assertTrue(heartbeats >= 12, "only " + heartbeats + " heartbeats before the stream ended");
+    }
+
+    @TestConfiguration
+    static class ShortContainerTimeout {
+
+        @Bean
+        WebServerFactoryCustomizer<TomcatServletWebServerFactory> shortAsyncTimeout() {
+            return factory -> factory.addConnectorCustomizers(connector -> connector.setAsyncTimeout(1000));
+        }
+    }
+}
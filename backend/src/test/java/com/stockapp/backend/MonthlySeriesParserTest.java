@@ -0,0 +1,73 @@
+package com.stockapp.backend;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.stockapp.backend.client.MonthlySeriesParser;
+import com.stockapp.backend.client.UpstreamRateLimitException;
+import com.stockapp.backend.model.SymbolSeries;
+import org.junit.jupiter.api.Test;
+
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class MonthlySeriesParserTest {
+
+    private final JsonFactory jsonFactory = new JsonFactory();
+
+    @Test
+    public void parsesBarsFedInSmallChunks() throws Exception {
+        byte[] body;
+        try (InputStream in = getClass().getResourceAsStream("/alphavantage/monthly-IBM.json")) {
+            body = in.readAllBytes();
+        }
+
+        MonthlySeriesParser parser = new MonthlySeriesParser(jsonFactory, "IBM");
+        for (int offset = 0; offset < body.length; offset += 7) {
+            parser.feed(ByteBuffer.wrap(body, offset, Math.min(7, body.length - offset)));
+        }
+        SymbolSeries series = parser.finish();
+
+        assertEquals(3, series.size());
+        assertEquals(LocalDate.parse("2024-01-31").toEpochDay(), series.epochDay(0));
+        assertEquals(162.83, series.open(0));
+        assertEquals(157.885, series.low(0));
+        assertEquals(191.07, series.close(2));
+        assertEquals(71467741L, series.volume(2));
+    }
+
+    @Test
+    public void rateLimitMessageRaisesRateLimitException() {
+        String body = "{\"Information\": \"Thank you for using Alpha Vantage! API rate limit is 25 requests per day.\"}";
+
+        MonthlySeriesParser parser = new MonthlySeriesParser(jsonFactory, "IBM")
+            .feed(ByteBuffer.wrap(body.getBytes(StandardCharsets.UTF_8)));
+
+        assertThrows(UpstreamRateLimitException.class, parser::finish);
+    }
+
+    @Test
+    public void otherInformationMessageIsAnErrorNotAnEmptySeries() {
+        String body = "{\"Information\": \"This is a premium endpoint. Subscribe to unlock it.\"}";
+
+        MonthlySeriesParser parser = new MonthlySeriesParser(jsonFactory, "IBM")
+            .feed(ByteBuffer.wrap(body.getBytes(StandardCharsets.UTF_8)));
+
+        IllegalStateException e = assertThrows(IllegalStateException.class, parser::finish);
+        assertTrue(e.getMessage().contains("premium endpoint"), e.getMessage());
+    }
+
+    @Test
+    public void responseWithoutTimeSeriesIsAnError() {
+        String body = "{\"Meta Data\": {\"2. Symbol\": \"IBM\"}}";
+
+        MonthlySeriesParser parser = new MonthlySeriesParser(jsonFactory, "IBM")
+            .feed(ByteBuffer.wrap(body.getBytes(StandardCharsets.UTF_8)));
+
+        assertThrows(IllegalStateException.class, parser::finish);
+    }
+}
@@ -0,0 +1,269 @@
+package com.stockapp.backend;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArraySet;
+
+/**
+ * Minimal in-process server speaking RESP2, enough of the Redis protocol for the shared cache
+ * tier: GET, SET with EX/PX/NX/XX, SETEX/PSETEX, DEL, PUBLISH/SUBSCRIBE and the compare-and-delete script
+ * used to release refresh locks. It answers HELLO as a pre-6 Redis does, so clients fall back
+ * to RESP2.
+ */
+class RespStandIn implements AutoCloseable {
+    private final ServerSocket server;
+    private final Map<String, Value> values = new ConcurrentHashMap<>();
+    private final Map<String, Set<Connection>> subscribers = new ConcurrentHashMap<>();
+
+    RespStandIn() throws IOException {
+        server = new ServerSocket(0);
+        Thread acceptor = new Thread(this::accept, "resp-stand-in");
+        acceptor.setDaemon(true);
+        acceptor.start();
+    }
+
+    int port() {
+        return server.getLocalPort();
+    }
+
+    boolean contains(String key) {
+        Value value = values.get(key);
+        return value != null && !value.isExpired();
+    }
+
+    @Override
+    public void close() throws IOException {
+        server.close();
+    }
+
+    private void accept() {
+        while (!server.isClosed()) {
+            try {
+                Connection connection = new Connection(server.accept());
+                Thread worker = new Thread(connection::serve, "resp-stand-in-connection");
+                worker.setDaemon(true);
+                worker.start();
+            } catch (IOException e) {
+                return;
+            }
+        }
+    }
+
+    private record Value(byte[] bytes, long expiresAt) {
+
+        boolean isExpired() {
+            return expiresAt != 0 && System.currentTimeMillis() >= expiresAt;
+        }
+    }
+
+    private class Connection {
+        private final Socket socket;
+        private final InputStream in;
+        private final OutputStream out;
+
+        Connection(Socket socket) throws IOException {
+            this.socket = socket;
+            this.in = new BufferedInputStream(socket.getInputStream());
+            this.out = socket.getOutputStream();
+        }
+
+        void serve() {
+            try (socket) {
+                List<byte[]> command;
+                while ((command = readCommand()) != null) {
+                    execute(command);
+                }
+            } catch (IOException e) {
+                // Client went away
+            } finally {
+                subscribers.values().forEach(connections -> connections.remove(this));
+            }
+        }
+
+        private void execute(List<byte[]> command) throws IOException {
+            String name = text(command.get(0)).toUpperCase(Locale.ROOT);
+            switch (name) {
+                case "PING" -> simple("PONG");
+                case "CLIENT", "SELECT", "AUTH", "QUIT" -> simple("OK");
+                case "GET" -> {
+                    Value value = live(text(command.get(1)));
+                    bulk(value == null ? null : value.bytes());
+                }
+                case "SET" -> set(command);
+                case "SETEX", "PSETEX" -> {
+                    long ttl = Long.parseLong(text(command.get(2))) * (name.equals("SETEX") ? 1000 : 1);
+                    values.put(text(command.get(1)), new Value(command.get(3), System.currentTimeMillis() + ttl));
+                    simple("OK");
+                }
+                case "DEL" -> {
+                    int removed = 0;
+                    for (int i = 1; i < command.size(); i++) {
+                        removed += values.remove(text(command.get(i))) != null ? 1 : 0;
+                    }
+                    integer(removed);
+                }
+                case "PUBLISH" -> integer(publish(text(command.get(1)), command.get(2)));
+                case "SUBSCRIBE" -> {
+                    for (int i = 1; i < command.size(); i++) {
+                        subscribers.computeIfAbsent(text(command.get(i)), key -> new CopyOnWriteArraySet<>()).add(this);
+                        write(array("subscribe", command.get(i), i));
+                    }
+                }
+                case "EVALSHA" -> error("NOSCRIPT No matching script. Please use EVAL.");
+                case "EVAL" -> {
+                    // Only the compare-and-delete lock release: KEYS[1] is deleted if it holds ARGV[1]
+                    String key = text(command.get(3));
+                    boolean released;
+                    synchronized (values) {
+                        Value value = live(key);
+                        released = value != null && Arrays.equals(value.bytes(), command.get(4)) && values.remove(key, value);
+                    }
+                    integer(released ? 1 : 0);
+                }
+                default -> error("ERR unknown command '" + name + "'");
+            }
+        }
+
+        private void set(List<byte[]> command) throws IOException {
+            String key = text(command.get(1));
+            long expiresAt = 0;
+            boolean nx = false;
+            boolean xx = false;
+            for (int i = 3; i < command.size(); i++) {
+                switch (text(command.get(i)).toUpperCase(Locale.ROOT)) {
+                    case "EX" -> expiresAt = System.currentTimeMillis() + 1000 * Long.parseLong(text(command.get(++i)));
+                    case "PX" -> expiresAt = System.currentTimeMillis() + Long.parseLong(text(command.get(++i)));
+                    case "NX" -> nx = true;
+                    case "XX" -> xx = true;
+                    default -> {
+                        error("ERR syntax error");
+                        return;
+                    }
+                }
+            }
+            Value value = new Value(command.get(2), expiresAt);
+            synchronized (values) {
+                boolean exists = live(key) != null;
+                if ((nx && exists) || (xx && !exists)) {
+                    bulk(null);
+                    return;
+                }
+                values.put(key, value);
+            }
+            simple("OK");
+        }
+
+        private Value live(String key) {
+            Value value = values.get(key);
+            if (value != null && value.isExpired()) {
+                values.remove(key, value);
+                return null;
+            }
+            return value;
+        }
+
+        private int publish(String channel, byte[] message) {
+            Set<Connection> connections = subscribers.getOrDefault(channel, Set.of());
+            for (Connection connection : connections) {
+                try {
+                    connection.write(array("message", channel.getBytes(StandardCharsets.UTF_8), message));
+                } catch (IOException e) {
+                    connections.remove(connection);
+                }
+            }
+            return connections.size();
+        }
+
+        private List<byte[]> readCommand() throws IOException {
+            int type = in.read();
+            if (type < 0) {
+                return null;
+            }
+            if (type != '*') {
+                throw new IOException("Expected a command array");
+            }
+            int count = Integer.parseInt(readLine());
+            List<byte[]> parts = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                if (in.read() != '$') {
+                    throw new IOException("Expected a bulk string");
+                }
+                byte[] part = in.readNBytes(Integer.parseInt(readLine()));
+                in.readNBytes(2);
+                parts.add(part);
+            }
+            return parts;
+        }
+
+        private String readLine() throws IOException {
+            ByteArrayOutputStream line = new ByteArrayOutputStream();
+            int b;
+            while ((b = in.read()) != '\r') {
+                if (b < 0) {
+                    throw new IOException("Connection closed");
+                }
+                line.write(b);
+            }
+            in.read();
+            return line.toString(StandardCharsets.US_ASCII);
+        }
+
+        private void simple(String reply) throws IOException {
+            write(("+" + reply + "\r\n").getBytes(StandardCharsets.US_ASCII));
+        }
+
+        private void error(String reply) throws IOException {
+            write(("-" + reply + "\r\n").getBytes(StandardCharsets.US_ASCII));
+        }
+
+        private void integer(long reply) throws IOException {
+            write((":" + reply + "\r\n").getBytes(StandardCharsets.US_ASCII));
+        }
+
+        private void bulk(byte[] reply) throws IOException {
+            write(reply == null ? "$-1\r\n".getBytes(StandardCharsets.US_ASCII) : bulkBytes(reply));
+        }
+
+        private byte[] array(String kind, byte[] channel, Object last) {
+            ByteArrayOutputStream reply = new ByteArrayOutputStream();
+            reply.writeBytes("*3\r\n".getBytes(StandardCharsets.US_ASCII));
+            reply.writeBytes(bulkBytes(kind.getBytes(StandardCharsets.US_ASCII)));
+            reply.writeBytes(bulkBytes(channel));
+            reply.writeBytes(last instanceof byte[] bytes ? bulkBytes(bytes)
+                : (":" + last + "\r\n").getBytes(StandardCharsets.US_ASCII));
+            return reply.toByteArray();
+        }
+
+        private byte[] bulkBytes(byte[] bytes) {
+            ByteArrayOutputStream reply = new ByteArrayOutputStream(bytes.length + 16);
+            reply.writeBytes(("$" + bytes.length + "\r\n").getBytes(StandardCharsets.US_ASCII));
+            reply.writeBytes(bytes);
+            reply.writeBytes("\r\n".getBytes(StandardCharsets.US_ASCII));
+            return reply.toByteArray();
+        }
+
+        private void write(byte[] bytes) throws IOException {
+            synchronized (out) {
+                out.write(bytes);
+                out.flush();
+            }
+        }
+
+        private static String text(byte[] bytes) {
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+    }
+}
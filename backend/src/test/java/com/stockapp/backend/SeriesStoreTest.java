@@ -0,0 +1,128 @@
+package com.stockapp.backend;
+
+import com.stockapp.backend.cache.SymbolSeriesCache;
+import com.stockapp.backend.client.FetchPriority;
+import com.stockapp.backend.model.SymbolSeries;
+import com.stockapp.backend.service.SymbolSeriesLoader;
+import com.stockapp.backend.store.SeriesStore;
+import com.stockapp.backend.store.SeriesStoreWarmer;
+import com.stockapp.backend.store.StoredSeries;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.test.util.ReflectionTestUtils;
+import reactor.core.publisher.Mono;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class SeriesStoreTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    public void appendsOnlyNewMonthsAndSupersedesTheTailMonth() throws Exception {
+        SeriesStore store = new SeriesStore(true, directory);
+
+        store.append("AAPL", series("2024-02-29", 180.0, "2024-01-31", 185.0));
+        long sizeAfterBackfill = Files.size(directory.resolve("AAPL.bin"));
+        store.append("AAPL", series("2024-03-15", 172.0, "2024-02-29", 180.0, "2024-01-31", 185.0));
+        store.append("AAPL", series("2024-03-18", 175.0, "2024-02-29", 180.0, "2024-01-31", 185.0));
+
+        // Unchanged history is never rewritten: two appends of one record each
+        assertEquals(sizeAfterBackfill + 2 * 44, Files.size(directory.resolve("AAPL.bin")));
+        StoredSeries stored = store.read("AAPL");
+        SymbolSeries series = stored.series();
+        assertEquals(3, series.size());
+        assertEquals(LocalDate.parse("2024-03-18").toEpochDay(), series.epochDay(2));
+        assertEquals(175.0, series.close(2));
+        assertEquals(List.of("AAPL"), store.symbols());
+    }
+
+    @Test
+    public void appendsAfterATornTailRecordAtARecordBoundary() throws Exception {
+        SeriesStore store = new SeriesStore(true, directory);
+        store.append("AAPL", series("2024-01-31", 185.0));
+        Path file = directory.resolve("AAPL.bin");
+        long sizeAfterBackfill = Files.size(file);
+        // A crash part-way through writing the next record
+        Files.write(file, new byte[17], StandardOpenOption.APPEND);
+
+        store.append("AAPL", series("2024-02-29", 180.0, "2024-01-31", 185.0));
+        store.append("AAPL", series("2024-03-28", 172.0, "2024-02-29", 180.0, "2024-01-31", 185.0));
+
+        assertEquals(sizeAfterBackfill + 2 * 44, Files.size(file));
+        SymbolSeries series = store.read("AAPL").series();
+        assertEquals(3, series.size());
+        assertEquals(180.0, series.close(1));
+        assertEquals(172.0, series.close(2));
+    }
+
+    @Test
+    public void ignoresSymbolsThatAreNotSafeFileNames() {
+        SeriesStore store = new SeriesStore(true, directory);
+
+        store.append("../AAPL", series("2024-01-31", 185.0));
+
+        assertNull(store.read("../AAPL"));
+        assertEquals(List.of(), store.symbols());
+    }
+
+    @Test
+    public void warmsTheNewestSymbolsUpToTheCacheBoundAndRefreshesOldOnes() throws Exception {
+        SeriesStore store = new SeriesStore(true, directory);
+        Instant now = Instant.now();
+        for (String symbol : List.of("AAPL", "MSFT", "IBM")) {
+            store.append(symbol, series("2024-01-31", 185.0));
+        }
+        Files.setLastModifiedTime(directory.resolve("AAPL.bin"), FileTime.from(now.minus(Duration.ofMinutes(5))));
+        Files.setLastModifiedTime(directory.resolve("MSFT.bin"), FileTime.from(now.minus(Duration.ofHours(2))));
+        Files.setLastModifiedTime(directory.resolve("IBM.bin"), FileTime.from(now.minus(Duration.ofDays(30))));
+        SymbolSeriesCache cache = new SymbolSeriesCache(new CaffeineCacheManager(SymbolSeriesCache.CACHE_NAME),
+            new SimpleMeterRegistry(), Duration.ofHours(1));
+        SymbolSeriesLoader loader = mock(SymbolSeriesLoader.class);
+        when(loader.load(anyString(), any())).thenReturn(Mono.empty());
+        SeriesStoreWarmer warmer = new SeriesStoreWarmer(store, cache, loader);
+        ReflectionTestUtils.setField(warmer, "maxSymbols", 2);
+
+        warmer.warmCache();
+
+        assertNotNull(cache.get("AAPL"));
+        assertEquals(now.minus(Duration.ofHours(2)).toEpochMilli() / 1000,
+            cache.get("MSFT").fetchedAt().toEpochMilli() / 1000);
+        assertNull(cache.get("IBM"));
+        verify(loader).load("MSFT", FetchPriority.BACKGROUND);
+        verify(loader, never()).load(eq("AAPL"), any());
+    }
+
+    /**
+     * Builds a series from alternating date and close arguments, newest first as upstream sends them.
+     */
+    private static SymbolSeries series(Object... dateAndClose) {
+        SymbolSeries.Builder builder = SymbolSeries.builder("AAPL", dateAndClose.length / 2);
+        for (int i = 0; i < dateAndClose.length; i += 2) {
+            double close = (Double) dateAndClose[i + 1];
+            builder.add((int) LocalDate.parse((String) dateAndClose[i]).toEpochDay(), close, close, close, close, 1_000_000);
+        }
+        return builder.build();
+    }
+}
@@ -0,0 +1,277 @@
+package com.stockapp.backend;
+
+import com.stockapp.backend.cache.CachedSeries;
+import com.stockapp.backend.cache.RedisSharedTier;
+import com.stockapp.backend.cache.SeriesCodec;
+import com.stockapp.backend.cache.SharedSeriesTier;
+import com.stockapp.backend.cache.SymbolFetchCoalescer;
+import com.stockapp.backend.cache.SymbolSeriesCache;
+import com.stockapp.backend.client.AlphaVantageClient;
+import com.stockapp.backend.client.FetchPriority;
+import com.stockapp.backend.client.UpstreamCircuitBreaker;
+import com.stockapp.backend.client.UpstreamScheduler;
+import com.stockapp.backend.ingest.SymbolUniverse;
+import com.stockapp.backend.model.SymbolSeries;
+import com.stockapp.backend.service.AnalyticsEngine;
+import com.stockapp.backend.service.StockService;
+import com.stockapp.backend.service.SymbolSeriesLoader;
+import com.stockapp.backend.store.SeriesStore;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class SharedSeriesTierTest {
+
+    private RespStandIn standIn;
+    private final List<AutoCloseable> resources = new ArrayList<>();
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        standIn = new RespStandIn();
+    }
+
+    @AfterEach
+    public void tearDown() throws Exception {
+        for (AutoCloseable resource : resources) {
+            resource.close();
+        }
+        standIn.close();
+    }
+
+    @Test
+    public void codecRoundTripsSeriesCompactly() {
+        SymbolSeries quoted = series("IBM", 120, 0);
+        CachedSeries entry = new CachedSeries(quoted, Instant.now().truncatedTo(ChronoUnit.MILLIS));
+        byte[] bytes = SeriesCodec.encode(entry);
+        CachedSeries decoded = SeriesCodec.decode("IBM", bytes);
+
+        assertEquals(quoted.version(), decoded.series().version());
+        assertEquals(entry.fetchedAt(), decoded.fetchedAt());
+        assertTrue(bytes.length < quoted.size() * 20, "encoded " + bytes.length + " bytes");
+
+        // Prices that are not four-decimal quotes are kept exactly as well
+        SymbolSeries computed = series("IBM", 12, Math.PI / 1e6);
+        assertEquals(computed.version(),
+            SeriesCodec.decode("IBM", SeriesCodec.encode(new CachedSeries(computed, Instant.now()))).series().version());
+    }
+
+    @Test
+    public void nodesReadEachOthersEntriesAndDropSupersededCopies() throws Exception {
+        SymbolSeriesCache nodeA = cache(tier());
+        SymbolSeriesCache nodeB = cache(tier());
+
+        CachedSeries first = nodeA.put("IBM", series("IBM", 3, 0));
+        CachedSeries shared = nodeB.get("IBM");
+        assertNotNull(shared);
+        assertEquals(first.series().version(), shared.series().version());
+        assertEquals(first.fetchedAt().toEpochMilli(), shared.fetchedAt().toEpochMilli());
+
+        // B now holds a fresh local copy, so only the invalidation can make it see A's refresh
+        CachedSeries second = nodeA.put("IBM", series("IBM", 4, 0));
+        long deadline = System.currentTimeMillis() + 5000;
+        while (nodeB.get("IBM").series().version() != second.series().version()) {
+            assertTrue(System.currentTimeMillis() < deadline, "node B never saw node A's refresh");
+            Thread.sleep(20);
+        }
+    }
+
+    @Test
+    public void refreshLockIsHeldByOneNodeAtATime() {
+        SharedSeriesTier nodeA = tier();
+        SharedSeriesTier nodeB = tier();
+
+        SharedSeriesTier.RefreshLock lockA = nodeA.tryLock("IBM");
+        assertNotNull(lockA);
+        assertNull(nodeB.tryLock("IBM"));
+
+        lockA.release();
+        SharedSeriesTier.RefreshLock lockB = nodeB.tryLock("IBM");
+        assertNotNull(lockB);
+
+        // A second release by the previous holder must not free B's lock
+        lockA.release();
+        assertTrue(standIn.contains("stockapp:refresh:IBM"));
+        lockB.release();
+    }
+
+    @Test
+    public void onlyOneNodeFetchesASymbolUpstream() {
+        AtomicInteger upstreamCalls = new AtomicInteger();
+        SymbolSeriesLoader loaderA = loader(slowClient(upstreamCalls), tier());
+        SymbolSeriesLoader loaderB = loader(slowClient(upstreamCalls), tier());
+
+        List<CachedSeries> loaded = Mono.zip(
+                loaderA.load("IBM", FetchPriority.INTERACTIVE),
+                loaderB.load("IBM", FetchPriority.INTERACTIVE))
+            .map(pair -> List.of(pair.getT1(), pair.getT2()))
+            .block(Duration.ofSeconds(10));
+
+        assertEquals(1, upstreamCalls.get());
+        assertEquals(loaded.get(0).series().version(), loaded.get(1).series().version());
+    }
+
+    @Test
+    public void ingestionReusesAnotherNodesRecentFetch(@TempDir Path directory) {
+        AtomicInteger upstreamCalls = new AtomicInteger();
+        SeriesStore storeB = new SeriesStore(true, directory);
+        SymbolSeriesLoader loaderA = loader(slowClient(upstreamCalls), tier());
+        SymbolSeriesLoader loaderB = loader(slowClient(upstreamCalls), tier(), storeB);
+
+        CachedSeries fetched = loaderA.fetch("IBM", FetchPriority.BACKGROUND, Duration.ofHours(24)).block();
+        CachedSeries reused = loaderB.fetch("IBM", FetchPriority.BACKGROUND, Duration.ofHours(24)).block();
+
+        assertEquals(1, upstreamCalls.get());
+        assertEquals(fetched.fetchedAt().toEpochMilli(), reused.fetchedAt().toEpochMilli());
+        assertEquals(fetched.series().version(), storeB.read("IBM").series().version());
+    }
+
+    @Test
+    public void sharedLookupsRunOffTheRequestThread() {
+        SharedSeriesTier nodeA = tier();
+        SharedSeriesTier nodeB = tier();
+        List<String> lookupThreads = new CopyOnWriteArrayList<>();
+        SharedSeriesTier recordingB = new SharedSeriesTier() {
+            @Override
+            public boolean isEnabled() {
+                return true;
+            }
+
+            @Override
+            public CachedSeries get(String symbol) {
+                lookupThreads.add(Thread.currentThread().getName());
+                return nodeB.get(symbol);
+            }
+
+            @Override
+            public void put(String symbol, CachedSeries entry) {
+                nodeB.put(symbol, entry);
+            }
+
+            @Override
+            public void onInvalidation(Consumer<String> listener) {
+                nodeB.onInvalidation(listener);
+            }
+
+            @Override
+            public RefreshLock tryLock(String symbol) {
+                return nodeB.tryLock(symbol);
+            }
+        };
+        cache(nodeA).put("IBM", series("IBM", 3, 0));
+        SymbolSeriesCache cacheB = cache(recordingB);
+        MeterRegistry meterRegistry = new SimpleMeterRegistry();
+        StockService stockService = new StockService(loader(slowClient(new AtomicInteger()), recordingB), cacheB,
+            new AnalyticsEngine(8, 2, 1000, meterRegistry), Schedulers.boundedElastic());
+        ReflectionTestUtils.setField(stockService, "fetchConcurrency", 4);
+        ReflectionTestUtils.setField(stockService, "fetchDeadline", Duration.ofSeconds(5));
+
+        assertTrue(stockService.getEodData("IBM").getErrors().isEmpty());
+
+        assertFalse(lookupThreads.isEmpty());
+        lookupThreads.forEach(thread -> assertNotEquals(Thread.currentThread().getName(), thread));
+    }
+
+    @Test
+    public void unreachableTierFallsBackToLocalBehaviour() throws Exception {
+        SharedSeriesTier tier = tier();
+        standIn.close();
+
+        assertNull(tier.get("IBM"));
+        assertNotNull(tier.tryLock("IBM"));
+        SymbolSeriesCache cache = cache(tier);
+        cache.put("IBM", series("IBM", 3, 0));
+        assertNotNull(cache.get("IBM"));
+    }
+
+    private SharedSeriesTier tier() {
+        LettuceConnectionFactory connectionFactory =
+            new LettuceConnectionFactory(new RedisStandaloneConfiguration("localhost", standIn.port()));
+        connectionFactory.afterPropertiesSet();
+        connectionFactory.start();
+        resources.add(connectionFactory::destroy);
+
+        RedisTemplate<String, byte[]> template = new RedisTemplate<>();
+        template.setConnectionFactory(connectionFactory);
+        template.setKeySerializer(RedisSerializer.string());
+        template.setValueSerializer(RedisSerializer.byteArray());
+        template.afterPropertiesSet();
+
+        RedisSharedTier tier = new RedisSharedTier(template, "stockapp:", Duration.ofHours(24),
+            Duration.ofSeconds(30), new SimpleMeterRegistry());
+        resources.add(0, tier);
+        return tier;
+    }
+
+    private static SymbolSeriesCache cache(SharedSeriesTier tier) {
+        return new SymbolSeriesCache(new CaffeineCacheManager(SymbolSeriesCache.CACHE_NAME), new SimpleMeterRegistry(),
+            Duration.ofHours(1), tier, SymbolUniverse.NONE);
+    }
+
+    private static SymbolSeriesLoader loader(AlphaVantageClient client, SharedSeriesTier tier) {
+        return loader(client, tier, new SeriesStore(false, Path.of("unused")));
+    }
+
+    private static SymbolSeriesLoader loader(AlphaVantageClient client, SharedSeriesTier tier, SeriesStore store) {
+        MeterRegistry meterRegistry = new SimpleMeterRegistry();
+        return new SymbolSeriesLoader(client, cache(tier), new SymbolFetchCoalescer(meterRegistry),
+            new UpstreamScheduler(1000, 1000, Duration.ofSeconds(1), meterRegistry),
+            new UpstreamCircuitBreaker(100, Duration.ofSeconds(30), meterRegistry),
+            store, Schedulers.boundedElastic(), tier, SymbolUniverse.NONE);
+    }
+
+    private static AlphaVantageClient slowClient(AtomicInteger calls) {
+        AlphaVantageClient client = mock(AlphaVantageClient.class);
+        // The production retry policy, so failures reach the loader exactly as they would in use
+        when(client.retrySpec()).thenReturn(
+            new AlphaVantageClient(WebClient.builder(), new SimpleMeterRegistry(), 2, Duration.ofMillis(1)).retrySpec());
+        when(client.fetchMonthly("IBM")).thenReturn(Mono.fromSupplier(() -> {
+                calls.incrementAndGet();
+                return series("IBM", 3, 0);
+            })
+            .delayElement(Duration.ofMillis(300)));
+        return client;
+    }
+
+    private static SymbolSeries series(String symbol, int months, double offset) {
+        SymbolSeries.Builder bars = SymbolSeries.builder(symbol, months);
+        LocalDate date = LocalDate.parse("2014-01-31");
+        for (int i = 0; i < months; i++) {
+            double close = 150.25 + (i % 7) * 1.3125 - (i % 3) * 2.07 + offset;
+            bars.add((int) date.plusMonths(i).withDayOfMonth(date.plusMonths(i).lengthOfMonth()).toEpochDay(),
+                close - 1.5, close + 3.125, close - 4.0001, close, 80_000_000L + i * 1_234_567L);
+        }
+        return bars.build();
+    }
+}
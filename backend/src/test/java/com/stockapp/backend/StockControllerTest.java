@@ -1,7 +1,11 @@
 package com.stockapp.backend;
 
 import com.stockapp.backend.controller.StockController;
+import com.stockapp.backend.model.SeriesChunk;
+import com.stockapp.backend.model.StaleSeries;
 import com.stockapp.backend.model.StockData;
+import com.stockapp.backend.model.SymbolError;
+import com.stockapp.backend.service.SeriesQuery;
 import com.stockapp.backend.service.StockService;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -9,11 +13,26 @@ import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMock
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @SpringBootTest
@@ -38,10 +57,111 @@ public class StockControllerTest {
     @Test
     public void getStockDataEndpointExists() throws Exception {
         StockData mockData = new StockData();
-        when(stockService.getEodData(anyString())).thenReturn(mockData);
+        when(stockService.getEodData(anyString(), any())).thenReturn(mockData);
         
         mockMvc.perform(get("/api/stocks/eod")
                .param("symbols", "AAPL"))
                .andExpect(status().isOk());
     }
+
+    @Test
+    public void streamEndpointWritesOneLinePerSymbol() throws Exception {
+        when(stockService.streamEodData(anyString(), any())).thenReturn(Flux.just(
+            new SeriesChunk("AAPL", List.of(), null, null),
+            new SeriesChunk("MSFT", null, null, new SymbolError("MSFT", "API rate limit reached", 60L))));
+
+        MvcResult result = mockMvc.perform(get("/api/stocks/eod/stream")
+               .param("symbols", "AAPL,MSFT")
+               .accept(MediaType.APPLICATION_NDJSON))
+               .andExpect(request().asyncStarted())
+               .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+               .andExpect(status().isOk())
+               .andExpect(content().string("{\"symbol\":\"AAPL\",\"data\":[]}\n"
+                   + "{\"symbol\":\"MSFT\",\"error\":{\"symbol\":\"MSFT\",\"message\":\"API rate limit reached\",\"retry_after\":60}}\n"));
+    }
+
+    @Test
+    public void getStockDataRejectsUnknownProjectionField() throws Exception {
+        mockMvc.perform(get("/api/stocks/eod")
+               .param("symbols", "AAPL")
+               .param("fields", "close,bogus"))
+               .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    public void blankProjectionMeansNoProjectionAndAnEmptyOneIsRejected() throws Exception {
+        when(stockService.getEodData(anyString(), any())).thenReturn(new StockData());
+
+        mockMvc.perform(get("/api/stocks/eod")
+               .param("symbols", "AAPL")
+               .param("fields", " "))
+               .andExpect(status().isOk());
+        verify(stockService).getEodData("AAPL", SeriesQuery.ALL);
+        mockMvc.perform(get("/api/stocks/eod")
+               .param("symbols", "AAPL")
+               .param("fields", ",,"))
+               .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    public void analyticsRejectsAnIndicatorListThatNamesNone() throws Exception {
+        mockMvc.perform(get("/api/stocks/analytics")
+               .param("symbols", "AAPL")
+               .param("indicators", " , "))
+               .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    public void liveRejectsSubscriptionsOverTheSymbolCap() throws Exception {
+        String symbols = IntStream.range(0, 21).mapToObj(i -> "S" + i).collect(Collectors.joining(","));
+
+        mockMvc.perform(get("/api/stocks/live")
+               .param("symbols", symbols)
+               .accept(MediaType.TEXT_EVENT_STREAM))
+               .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    public void eodResponsesAreRevalidatedByVersion() throws Exception {
+        StockData stockData = new StockData();
+        stockData.setVersion(0x2aL);
+        stockData.setLastModified(Instant.parse("2024-03-01T12:00:00Z"));
+        when(stockService.getEodData(anyString(), any())).thenReturn(stockData);
+
+        mockMvc.perform(get("/api/stocks/eod").param("symbols", "AAPL"))
+               .andExpect(status().isOk())
+               .andExpect(header().string("ETag", "W/\"2a\""))
+               .andExpect(header().string("Cache-Control", "max-age=300, public"));
+        mockMvc.perform(get("/api/stocks/eod").param("symbols", "AAPL").header("If-None-Match", "W/\"2a\""))
+               .andExpect(status().isNotModified())
+               .andExpect(content().string(""));
+
+        stockData.setStale(List.of(new StaleSeries("AAPL", "2024-03-01T12:00:00Z", "API rate limit reached")));
+        mockMvc.perform(get("/api/stocks/eod").param("symbols", "AAPL").header("If-None-Match", "W/\"2a\""))
+               .andExpect(status().isOk())
+               .andExpect(header().doesNotExist("ETag"))
+               .andExpect(header().string("Cache-Control", "no-store"));
+    }
+
+    @Test
+    public void hashedAssetsAreImmutableAndServedPrecompressed() throws Exception {
+        mockMvc.perform(get("/assets/index-3f2a1c9e.js").header("Accept-Encoding", "br, gzip"))
+               .andExpect(status().isOk())
+               .andExpect(header().string("Content-Encoding", "gzip"))
+               .andExpect(header().string("Cache-Control", "max-age=31536000, public, immutable"));
+    }
+
+    @Test
+    public void publishesSerializationAndCacheMetrics() throws Exception {
+        when(stockService.getEodData(anyString(), any())).thenReturn(new StockData());
+        mockMvc.perform(get("/api/stocks/eod").param("symbols", "AAPL"))
+               .andExpect(status().isOk());
+
+        mockMvc.perform(get("/actuator/metrics/stockapp.http.serialization").param("tag", "type:StockData"))
+               .andExpect(status().isOk());
+        mockMvc.perform(get("/actuator/metrics/cache.gets").param("tag", "cache:stockDataCache"))
+               .andExpect(status().isOk());
+    }
 }
@@ -0,0 +1,271 @@
+package com.stockapp.backend;
+
+import com.stockapp.backend.cache.SharedSeriesTier;
+import com.stockapp.backend.cache.SymbolFetchCoalescer;
+import com.stockapp.backend.cache.SymbolSeriesCache;
+import com.stockapp.backend.client.AlphaVantageClient;
+import com.stockapp.backend.client.UpstreamCircuitBreaker;
+import com.stockapp.backend.client.UpstreamHttpException;
+import com.stockapp.backend.client.UpstreamRateLimitException;
+import com.stockapp.backend.client.UpstreamScheduler;
+import com.stockapp.backend.ingest.SymbolUniverse;
+import com.stockapp.backend.model.EODData;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.stockapp.backend.model.AnalyticsData;
+import com.stockapp.backend.model.ChartData;
+import com.stockapp.backend.model.Indicator;
+import com.stockapp.backend.model.SeriesField;
+import com.stockapp.backend.model.StockData;
+import com.stockapp.backend.model.SymbolError;
+import com.stockapp.backend.model.SymbolSeries;
+import com.stockapp.backend.service.AnalyticsEngine;
+import com.stockapp.backend.service.SeriesQuery;
+import com.stockapp.backend.service.StockService;
+import com.stockapp.backend.service.SymbolSeriesLoader;
+import com.stockapp.backend.store.SeriesStore;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+import reactor.util.retry.Retry;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class StockServiceTest {
+
+    private AlphaVantageClient client;
+    private MeterRegistry meterRegistry;
+    private StockService stockService;
+
+    @BeforeEach
+    public void setUp() {
+        client = mock(AlphaVantageClient.class);
+        meterRegistry = new SimpleMeterRegistry();
+        when(client.retrySpec()).thenReturn(retrySpec(2));
+        stockService = newService(Duration.ofHours(1));
+    }
+
+    /**
+     * The production retry policy, so failures reach the service exactly as they would in use.
+     */
+    private Retry retrySpec(int maxRetries) {
+        return new AlphaVantageClient(WebClient.builder(), meterRegistry, maxRetries, Duration.ofMillis(1)).retrySpec();
+    }
+
+    private StockService newService(Duration ttl) {
+        SymbolSeriesCache cache = new SymbolSeriesCache(
+            new CaffeineCacheManager(SymbolSeriesCache.CACHE_NAME), meterRegistry, ttl);
+        UpstreamScheduler scheduler = new UpstreamScheduler(1000, 1000, Duration.ofSeconds(1), meterRegistry);
+        SymbolSeriesLoader loader = new SymbolSeriesLoader(client, cache, new SymbolFetchCoalescer(meterRegistry), scheduler,
+            new UpstreamCircuitBreaker(100, Duration.ofSeconds(30), meterRegistry),
+            new SeriesStore(false, Path.of("unused")), Schedulers.boundedElastic(), SharedSeriesTier.LOCAL_ONLY,
+            SymbolUniverse.NONE);
+        StockService service = new StockService(loader, cache, new AnalyticsEngine(8, 2, 1000, meterRegistry),
+            Schedulers.boundedElastic());
+        ReflectionTestUtils.setField(service, "fetchConcurrency", 4);
+        ReflectionTestUtils.setField(service, "fetchDeadline", Duration.ofMillis(500));
+        return service;
+    }
+
+    @Test
+    public void mergesResultsInRequestOrder() {
+        when(client.fetchMonthly("AAPL")).thenReturn(Mono.just(series("AAPL")).delayElement(Duration.ofMillis(100)));
+        when(client.fetchMonthly("MSFT")).thenReturn(Mono.just(series("MSFT")));
+
+        StockData result = stockService.getEodData("AAPL, MSFT");
+
+        assertEquals(List.of("AAPL", "MSFT"), result.getData().stream().map(EODData::getSymbol).toList());
+        assertEquals(0, result.getErrors().size());
+    }
+
+    @Test
+    public void reportsFailuresAndDeadlinePerSymbol() {
+        when(client.fetchMonthly("AAPL")).thenReturn(Mono.just(series("AAPL")));
+        when(client.fetchMonthly("BAD")).thenReturn(Mono.error(new RuntimeException("API rate limit reached")));
+        when(client.fetchMonthly("SLOW")).thenReturn(Mono.never());
+
+        StockData result = stockService.getEodData("AAPL,BAD,SLOW");
+
+        assertEquals(1, result.getData().size());
+        assertEquals(List.of("BAD", "SLOW"), result.getErrors().stream().map(e -> e.getSymbol()).toList());
+    }
+
+    @Test
+    public void overlappingQueriesShareSymbolEntries() {
+        when(client.fetchMonthly("AAPL")).thenReturn(Mono.just(series("AAPL")));
+        when(client.fetchMonthly("MSFT")).thenReturn(Mono.just(series("MSFT")));
+
+        stockService.getEodData("AAPL,MSFT");
+        StockData result = stockService.getEodData("msft, AAPL,MSFT");
+
+        assertEquals(List.of("MSFT", "AAPL"), result.getData().stream().map(EODData::getSymbol).toList());
+        verify(client, times(1)).fetchMonthly("AAPL");
+        verify(client, times(1)).fetchMonthly("MSFT");
+        assertEquals(1.0, meterRegistry.get("stockapp.cache.lookups")
+            .tag("symbol", "AAPL").tag("result", "hit").counter().count());
+    }
+
+    @Test
+    public void countsLookupsOfUncachedSymbolsUnderOneTag() {
+        when(client.fetchMonthly("AAPL")).thenReturn(Mono.just(series("AAPL")));
+        when(client.fetchMonthly("NOPE")).thenReturn(Mono.error(new UpstreamHttpException(404)));
+
+        stockService.getEodData("AAPL,NOPE");
+        stockService.getEodData("AAPL,NOPE");
+
+        assertEquals(1.0, meterRegistry.get("stockapp.cache.lookups")
+            .tag("symbol", "AAPL").tag("result", "hit").counter().count());
+        assertEquals(3.0, meterRegistry.get("stockapp.cache.lookups")
+            .tag("symbol", "other").tag("result", "miss").counter().count());
+        assertTrue(meterRegistry.find("stockapp.cache.lookups").tag("symbol", "NOPE").counters().isEmpty());
+    }
+
+    @Test
+    public void concurrentMissesShareOneUpstreamCall() {
+        when(client.fetchMonthly("AAPL")).thenReturn(Mono.just(series("AAPL")).delayElement(Duration.ofMillis(200)));
+
+        CompletableFuture<StockData> first = CompletableFuture.supplyAsync(() -> stockService.getEodData("AAPL"));
+        CompletableFuture<StockData> second = CompletableFuture.supplyAsync(() -> stockService.getEodData("AAPL"));
+
+        assertEquals(1, first.join().getData().size());
+        assertEquals(1, second.join().getData().size());
+        verify(client, times(1)).fetchMonthly("AAPL");
+    }
+
+    @Test
+    public void retriesQueueForQuotaLikeAnyOtherCall() {
+        when(client.retrySpec()).thenReturn(retrySpec(1));
+        when(client.fetchMonthly("AAPL"))
+            .thenReturn(Mono.error(new UpstreamHttpException(503)))
+            .thenReturn(Mono.just(series("AAPL")));
+
+        StockData data = stockService.getEodData("AAPL");
+
+        assertEquals(1, data.getData().size());
+        assertEquals(998.0, meterRegistry.get("stockapp.upstream.budget.remaining").tag("window", "minute").gauge().value());
+    }
+
+    @Test
+    public void reportsNonTransientFailuresWithoutRetrying() {
+        when(client.fetchMonthly("GONE")).thenReturn(Mono.error(new UpstreamHttpException(404)));
+        when(client.fetchMonthly("BAD")).thenReturn(Mono.error(new IllegalArgumentException("Invalid API call")));
+        when(client.fetchMonthly("BUSY")).thenReturn(
+            Mono.error(new UpstreamRateLimitException("API rate limit reached", Duration.ofSeconds(30))));
+
+        StockData result = stockService.getEodData("GONE,BAD,BUSY");
+
+        List<SymbolError> errors = result.getErrors();
+        assertEquals("AlphaVantage responded with HTTP 404", errors.get(0).getMessage());
+        assertNull(errors.get(0).getRetryAfterSeconds());
+        assertEquals("Invalid API call", errors.get(1).getMessage());
+        assertEquals(30L, errors.get(2).getRetryAfterSeconds());
+        verify(client, times(1)).fetchMonthly("GONE");
+        verify(client, times(1)).fetchMonthly("BAD");
+        verify(client, times(1)).fetchMonthly("BUSY");
+    }
+
+    @Test
+    public void servesStaleSeriesWhenRefetchFails() {
+        StockService expiringService = newService(Duration.ofSeconds(-1));
+        when(client.fetchMonthly("AAPL"))
+            .thenReturn(Mono.just(series("AAPL")))
+            .thenReturn(Mono.error(new RuntimeException("API rate limit reached")));
+
+        expiringService.getEodData("AAPL");
+        StockData result = expiringService.getEodData("AAPL");
+
+        assertEquals(1, result.getData().size());
+        assertEquals("AAPL", result.getStale().get(0).getSymbol());
+        assertEquals(0, result.getErrors().size());
+    }
+
+    @Test
+    public void shapesCachedSeriesWithoutRefetching() throws Exception {
+        SymbolSeries.Builder history = SymbolSeries.builder("AAPL", 24);
+        for (int m = 1; m <= 24; m++) {
+            LocalDate date = LocalDate.of(2022, 1, 1).plusMonths(m).minusDays(1);
+            history.add((int) date.toEpochDay(), m, m + 1, m - 1, m + 0.5, 100);
+        }
+        when(client.fetchMonthly("AAPL")).thenReturn(Mono.just(history.build()));
+        stockService.getEodData("AAPL");
+
+        SeriesQuery query = new SeriesQuery(LocalDate.of(2023, 1, 1), null, 4, SeriesField.parse("close,volume"));
+        StockData result = stockService.getEodData("AAPL", query);
+
+        // 12 bars in 2023, merged three at a time
+        assertEquals(4, result.getData().size());
+        assertEquals("2023-12-31T00:00:00Z", result.getData().get(0).getDate());
+        assertEquals(24.5, result.getData().get(0).getClose());
+        assertEquals(300.0, result.getData().get(0).getVolume());
+        String json = new ObjectMapper().writeValueAsString(result.getData());
+        assertTrue(json.contains("\"close\":24.5"));
+        assertFalse(json.contains("\"open\""));
+        verify(client, times(1)).fetchMonthly("AAPL");
+    }
+
+    @Test
+    public void alignsSymbolsOnASharedDateAxis() throws Exception {
+        int jan = (int) LocalDate.parse("2024-01-31").toEpochDay();
+        int feb = (int) LocalDate.parse("2024-02-29").toEpochDay();
+        when(client.fetchMonthly("AAPL")).thenReturn(Mono.just(SymbolSeries.builder("AAPL", 2)
+            .add(jan, 1, 1, 1, 10.0, 1).add(feb, 1, 1, 1, 11.0, 1).build()));
+        when(client.fetchMonthly("NEW")).thenReturn(Mono.just(SymbolSeries.builder("NEW", 1)
+            .add(feb, 1, 1, 1, 5.0, 1).build()));
+
+        ChartData chart = stockService.getChartData("AAPL,NEW", SeriesQuery.ALL, SeriesField.CLOSE);
+
+        assertEquals(List.of("2024-01-31", "2024-02-29"), chart.getDates());
+        assertTrue(new ObjectMapper().writeValueAsString(chart)
+            .contains("\"series\":{\"AAPL\":[10.0,11.0],\"NEW\":[null,5.0]}"));
+    }
+
+    @Test
+    public void computesIndicatorsAndMemoizesThemPerSeriesVersion() {
+        SymbolSeries.Builder aapl = SymbolSeries.builder("AAPL", 4);
+        SymbolSeries.Builder msft = SymbolSeries.builder("MSFT", 4);
+        double[] closes = {10, 12, 9, 15};
+        for (int i = 0; i < closes.length; i++) {
+            int day = (int) LocalDate.parse("2024-01-31").plusMonths(i).toEpochDay();
+            aapl.add(day, 1, 1, 1, closes[i], 1);
+            msft.add(day, 1, 1, 1, closes[i] * 2, 1);
+        }
+        when(client.fetchMonthly("AAPL")).thenReturn(Mono.just(aapl.build()));
+        when(client.fetchMonthly("MSFT")).thenReturn(Mono.just(msft.build()));
+
+        AnalyticsData first = stockService.getAnalytics("AAPL,MSFT", SeriesQuery.ALL, EnumSet.allOf(Indicator.class), 2, true);
+        AnalyticsData second = stockService.getAnalytics("AAPL", SeriesQuery.ALL, EnumSet.of(Indicator.SMA), 2, false);
+
+        double[] sma = first.getSymbols().get("AAPL").getIndicators().get("sma");
+        assertTrue(Double.isNaN(sma[0]));
+        assertEquals(11.0, sma[1], 1e-9);
+        assertEquals(12.0, sma[3], 1e-9);
+        assertEquals(-0.25, first.getSymbols().get("AAPL").getIndicators().get("drawdown")[2], 1e-9);
+        assertEquals(1.0, first.getCorrelation().getMatrix()[0][1], 1e-9);
+        assertTrue(sma == second.getSymbols().get("AAPL").getIndicators().get("sma"));
+    }
+
+    private static SymbolSeries series(String symbol) {
+        return SymbolSeries.builder(symbol, 1)
+            .add((int) LocalDate.parse("2024-01-31").toEpochDay(), 100.0, 100.0, 100.0, 100.0, 1_000)
+            .build();
+    }
+}
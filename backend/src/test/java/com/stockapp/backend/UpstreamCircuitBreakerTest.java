@@ -0,0 +1,64 @@
+package com.stockapp.backend;
+
+import com.stockapp.backend.client.UpstreamCircuitBreaker;
+import com.stockapp.backend.client.UpstreamCircuitOpenException;
+import com.stockapp.backend.client.UpstreamRateLimitException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class UpstreamCircuitBreakerTest {
+
+    @Test
+    public void opensAfterConsecutiveFailuresAndFailsFastWithoutCalling() {
+        UpstreamCircuitBreaker breaker = new UpstreamCircuitBreaker(2, Duration.ofMinutes(1), new SimpleMeterRegistry());
+        AtomicInteger calls = new AtomicInteger();
+
+        for (int i = 0; i < 2; i++) {
+            assertThrows(RuntimeException.class, () -> breaker.protect(() -> failing(calls)).block());
+        }
+        UpstreamCircuitOpenException e = assertThrows(UpstreamCircuitOpenException.class,
+            () -> breaker.protect(() -> failing(calls)).block());
+
+        assertEquals(2, calls.get());
+        assertTrue(e.getRetryAfter().toSeconds() >= 59);
+    }
+
+    @Test
+    public void quotaRefusalsDoNotOpenTheCircuit() {
+        UpstreamCircuitBreaker breaker = new UpstreamCircuitBreaker(1, Duration.ofMinutes(1), new SimpleMeterRegistry());
+
+        assertThrows(UpstreamRateLimitException.class, () -> breaker.protect(
+            () -> Mono.error(new UpstreamRateLimitException("limited", Duration.ofMinutes(1)))).block());
+
+        assertEquals("ok", breaker.protect(() -> Mono.just("ok")).block());
+    }
+
+    @Test
+    public void closesAgainAfterASuccessfulTrialCall() throws InterruptedException {
+        UpstreamCircuitBreaker breaker = new UpstreamCircuitBreaker(1, Duration.ofMillis(50), new SimpleMeterRegistry());
+        AtomicInteger calls = new AtomicInteger();
+        assertThrows(RuntimeException.class, () -> breaker.protect(() -> failing(calls)).block());
+        assertThrows(UpstreamCircuitOpenException.class, () -> breaker.protect(() -> Mono.just("early")).block());
+
+        Thread.sleep(80);
+
+        assertEquals("trial", breaker.protect(() -> Mono.just("trial")).block());
+        assertEquals("closed", breaker.protect(() -> Mono.just("closed")).block());
+    }
+
+    private static Mono<String> failing(AtomicInteger calls) {
+        return Mono.defer(() -> {
+            calls.incrementAndGet();
+            return Mono.error(new IOException("connection reset"));
+        });
+    }
+}
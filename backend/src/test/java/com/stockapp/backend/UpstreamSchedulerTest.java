@@ -0,0 +1,102 @@
+package com.stockapp.backend;
+
+import com.stockapp.backend.client.FetchPriority;
+import com.stockapp.backend.client.UpstreamRateLimitException;
+import com.stockapp.backend.client.UpstreamScheduler;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class UpstreamSchedulerTest {
+
+    @Test
+    public void rejectsWithRetryAfterOnceDailyBudgetIsSpent() {
+        UpstreamScheduler scheduler = new UpstreamScheduler(60, 2, Duration.ofSeconds(5), new SimpleMeterRegistry());
+
+        scheduler.submit(FetchPriority.INTERACTIVE, () -> Mono.just("a")).block();
+        scheduler.submit(FetchPriority.INTERACTIVE, () -> Mono.just("b")).block();
+        UpstreamRateLimitException e = assertThrows(UpstreamRateLimitException.class,
+            () -> scheduler.submit(FetchPriority.INTERACTIVE, () -> Mono.just("c")).block());
+
+        assertTrue(e.getRetryAfter().toSeconds() > 0);
+    }
+
+    @Test
+    public void rejectsInsteadOfQueueingPastMaxWait() {
+        UpstreamScheduler scheduler = new UpstreamScheduler(1, 100, Duration.ofSeconds(1), new SimpleMeterRegistry());
+
+        scheduler.submit(FetchPriority.INTERACTIVE, () -> Mono.just("a")).block();
+        UpstreamRateLimitException e = assertThrows(UpstreamRateLimitException.class,
+            () -> scheduler.submit(FetchPriority.BACKGROUND, () -> Mono.just("b")).block(Duration.ofMillis(500)));
+
+        assertTrue(e.getRetryAfter().toSeconds() >= 59);
+    }
+
+    @Test
+    public void localRejectionsDoNotSpendTheMinuteWindow() {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        UpstreamScheduler scheduler = new UpstreamScheduler(60, 1, Duration.ofSeconds(5), meterRegistry);
+        scheduler.submit(FetchPriority.BACKGROUND, () -> Mono.just("a")).block();
+        for (int i = 0; i < 10; i++) {
+            assertThrows(UpstreamRateLimitException.class,
+                () -> scheduler.submit(FetchPriority.BACKGROUND, () -> Mono.just("b")).block());
+        }
+
+        assertEquals(59.0, meterRegistry.get("stockapp.upstream.budget.remaining").tag("window", "minute").gauge().value());
+    }
+
+    @Test
+    public void providerRateLimitEmptiesTheMinuteWindow() {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        UpstreamScheduler scheduler = new UpstreamScheduler(60, 100, Duration.ofSeconds(5), meterRegistry);
+
+        assertThrows(UpstreamRateLimitException.class, () -> scheduler.submit(FetchPriority.INTERACTIVE,
+            () -> Mono.error(new UpstreamRateLimitException("API rate limit reached", Duration.ofMinutes(1)))).block());
+
+        assertEquals(0.0, meterRegistry.get("stockapp.upstream.budget.remaining").tag("window", "minute").gauge().value());
+    }
+
+    @Test
+    public void neverGrantsMoreThanTheQuotaInAnyMinute() {
+        AtomicLong clock = new AtomicLong();
+        UpstreamScheduler scheduler = new UpstreamScheduler(2, 100, Duration.ofSeconds(1), new SimpleMeterRegistry(), clock::get);
+
+        scheduler.submit(FetchPriority.INTERACTIVE, () -> Mono.just("a")).block();
+        scheduler.submit(FetchPriority.INTERACTIVE, () -> Mono.just("b")).block();
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(45));
+        UpstreamRateLimitException e = assertThrows(UpstreamRateLimitException.class,
+            () -> scheduler.submit(FetchPriority.INTERACTIVE, () -> Mono.just("c")).block(Duration.ofMillis(500)));
+
+        assertEquals(16, e.getRetryAfter().toSeconds());
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(15));
+        assertEquals("d", scheduler.submit(FetchPriority.INTERACTIVE, () -> Mono.just("d")).block(Duration.ofMillis(500)));
+    }
+
+    @Test
+    public void grantsQueuedInteractiveCallsBeforeEarlierBackgroundOnes() {
+        AtomicLong clock = new AtomicLong();
+        UpstreamScheduler scheduler = new UpstreamScheduler(1, 100, Duration.ofMinutes(5), new SimpleMeterRegistry(), clock::get);
+        List<String> granted = new CopyOnWriteArrayList<>();
+        scheduler.submit(FetchPriority.INTERACTIVE, () -> Mono.just("first")).block();
+
+        scheduler.submit(FetchPriority.BACKGROUND, () -> Mono.fromRunnable(() -> granted.add("background"))).subscribe();
+        scheduler.submit(FetchPriority.INTERACTIVE, () -> Mono.fromRunnable(() -> granted.add("interactive"))).subscribe();
+        assertEquals(List.of(), granted);
+
+        // The next window opens; any later submission drains the queue in priority order
+        clock.addAndGet(TimeUnit.MINUTES.toNanos(1));
+        scheduler.submit(FetchPriority.BACKGROUND, () -> Mono.fromRunnable(() -> granted.add("late"))).subscribe();
+
+        assertEquals(List.of("interactive"), granted);
+    }
+}
@@ -0,0 +1,56 @@
+package com.stockapp.benchmarks;
+
+import com.stockapp.backend.config.ServiceMetricsAspect;
+import com.stockapp.backend.model.StockData;
+import com.stockapp.backend.service.StockService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of {@link ServiceMetricsAspect} around a cache-hit {@code getEodData}: the same call
+ * made on the bare service and through a proxy advised like the Spring context's.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class AspectBenchmark {
+    private static final String SYMBOL = Fixtures.symbol(0);
+
+    private StockService direct;
+    private StockService advised;
+
+    @Setup
+    public void setUp() {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        direct = Fixtures.warmService(Fixtures.cache(meterRegistry), Fixtures.series(1), meterRegistry);
+        AspectJProxyFactory proxyFactory = new AspectJProxyFactory(direct);
+        proxyFactory.setProxyTargetClass(true);
+        proxyFactory.addAspect(new ServiceMetricsAspect(meterRegistry));
+        advised = proxyFactory.getProxy();
+    }
+
+    @Benchmark
+    public StockData direct() {
+        return direct.getEodData(SYMBOL);
+    }
+
+    @Benchmark
+    public StockData advised() {
+        return advised.getEodData(SYMBOL);
+    }
+}
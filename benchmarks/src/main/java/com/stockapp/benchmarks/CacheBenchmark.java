@@ -0,0 +1,58 @@
+package com.stockapp.benchmarks;
+
+import com.stockapp.backend.cache.CachedSeries;
+import com.stockapp.backend.cache.SymbolSeriesCache;
+import com.stockapp.backend.model.StockData;
+import com.stockapp.backend.service.StockService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Request paths when every symbol is already cached: a raw symbol lookup, and
+ * {@code StockService.getEodData} for single- and multi-symbol requests.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CacheBenchmark {
+
+    @Param({"1", "10"})
+    public int symbols;
+
+    private SymbolSeriesCache cache;
+    private StockService stockService;
+    private String symbolList;
+
+    @Setup
+    public void setUp() {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        cache = Fixtures.cache(meterRegistry);
+        stockService = Fixtures.warmService(cache, Fixtures.series(symbols), meterRegistry);
+        symbolList = Fixtures.symbols(symbols);
+    }
+
+    @Benchmark
+    public CachedSeries lookup() {
+        return cache.get(Fixtures.symbol(0));
+    }
+
+    @Benchmark
+    public StockData getEodData() {
+        return stockService.getEodData(symbolList);
+    }
+}
@@ -0,0 +1,117 @@
+package com.stockapp.benchmarks;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.stockapp.backend.cache.SharedSeriesTier;
+import com.stockapp.backend.cache.SymbolFetchCoalescer;
+import com.stockapp.backend.cache.SymbolSeriesCache;
+import com.stockapp.backend.client.AlphaVantageClient;
+import com.stockapp.backend.client.MonthlySeriesParser;
+import com.stockapp.backend.client.UpstreamCircuitBreaker;
+import com.stockapp.backend.client.UpstreamScheduler;
+import com.stockapp.backend.ingest.SymbolUniverse;
+import com.stockapp.backend.model.SymbolSeries;
+import com.stockapp.backend.service.AnalyticsEngine;
+import com.stockapp.backend.service.StockService;
+import com.stockapp.backend.service.SymbolSeriesLoader;
+import com.stockapp.backend.store.SeriesStore;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.scheduler.Schedulers;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.lang.reflect.Field;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Offline inputs for the benchmarks: checked-in AlphaVantage responses and backend
+ * components wired by hand the way Spring wires them, with no network access.
+ */
+final class Fixtures {
+    /** Three recent bars, as recorded from the live API. */
+    static final String SMALL_RESPONSE = "alphavantage/monthly-IBM.json";
+    /** Full monthly history (293 bars) in the same response format. */
+    static final String FULL_RESPONSE = "alphavantage/monthly-IBM-full.json";
+
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+    private Fixtures() {
+    }
+
+    static byte[] response(String resource) {
+        try (InputStream in = Fixtures.class.getClassLoader().getResourceAsStream(resource)) {
+            if (in == null) {
+                throw new IllegalStateException("Missing fixture " + resource);
+            }
+            return in.readAllBytes();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    static SymbolSeries parse(String symbol, byte[] body) {
+        return new MonthlySeriesParser(JSON_FACTORY, symbol).feed(ByteBuffer.wrap(body)).finish();
+    }
+
+    /** The full fixture under {@code count} symbol names. */
+    static List<SymbolSeries> series(int count) {
+        byte[] body = response(FULL_RESPONSE);
+        List<SymbolSeries> series = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            series.add(parse(symbol(i), body));
+        }
+        return series;
+    }
+
+    static String symbol(int i) {
+        return "SYM" + i;
+    }
+
+    static String symbols(int count) {
+        StringBuilder symbols = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            symbols.append(i == 0 ? "" : ",").append(symbol(i));
+        }
+        return symbols.toString();
+    }
+
+    static SymbolSeriesCache cache(MeterRegistry meterRegistry) {
+        return new SymbolSeriesCache(new CaffeineCacheManager(SymbolSeriesCache.CACHE_NAME), meterRegistry,
+            Duration.ofDays(365));
+    }
+
+    /** A service whose cache already holds {@code series}, so every request is a hit. */
+    static StockService warmService(SymbolSeriesCache cache, List<SymbolSeries> series, MeterRegistry meterRegistry) {
+        for (SymbolSeries s : series) {
+            cache.put(s.symbol(), s);
+        }
+        SymbolSeriesLoader loader = new SymbolSeriesLoader(
+            new AlphaVantageClient(WebClient.builder(), meterRegistry, 2, Duration.ofMillis(200)), cache,
+            new SymbolFetchCoalescer(meterRegistry),
+            new UpstreamScheduler(5, 500, Duration.ofSeconds(5), meterRegistry),
+            new UpstreamCircuitBreaker(5, Duration.ofSeconds(30), meterRegistry),
+            new SeriesStore(false, Path.of("unused")), Schedulers.boundedElastic(), SharedSeriesTier.LOCAL_ONLY,
+            SymbolUniverse.NONE);
+        StockService service = new StockService(loader, cache, new AnalyticsEngine(8, 0, 10_000, meterRegistry),
+            Schedulers.boundedElastic());
+        setField(service, "fetchConcurrency", 4);
+        setField(service, "fetchDeadline", Duration.ofSeconds(10));
+        return service;
+    }
+
+    private static void setField(Object target, String name, Object value) {
+        try {
+            Field field = target.getClass().getDeclaredField(name);
+            field.setAccessible(true);
+            field.set(target, value);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Cannot set " + name, e);
+        }
+    }
+}
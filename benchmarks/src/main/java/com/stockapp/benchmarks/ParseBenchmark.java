@@ -0,0 +1,58 @@
+package com.stockapp.benchmarks;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.stockapp.backend.client.MonthlySeriesParser;
+import com.stockapp.backend.model.SymbolSeries;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Parsing a recorded TIME_SERIES_MONTHLY body into a columnar series, fed either whole or
+ * in network-sized chunks as the WebClient delivers it.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class ParseBenchmark {
+    private final JsonFactory jsonFactory = new JsonFactory();
+
+    @Param({Fixtures.SMALL_RESPONSE, Fixtures.FULL_RESPONSE})
+    public String fixture;
+
+    @Param({"0", "8192"})
+    public int chunkSize;
+
+    private byte[] body;
+
+    @Setup
+    public void setUp() {
+        body = Fixtures.response(fixture);
+    }
+
+    @Benchmark
+    public SymbolSeries parse() {
+        MonthlySeriesParser parser = new MonthlySeriesParser(jsonFactory, "IBM");
+        if (chunkSize == 0) {
+            return parser.feed(ByteBuffer.wrap(body)).finish();
+        }
+        for (int offset = 0; offset < body.length; offset += chunkSize) {
+            parser.feed(ByteBuffer.wrap(body, offset, Math.min(chunkSize, body.length - offset)));
+        }
+        return parser.finish();
+    }
+}
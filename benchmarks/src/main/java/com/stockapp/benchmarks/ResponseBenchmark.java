@@ -0,0 +1,92 @@
+package com.stockapp.benchmarks;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.stockapp.backend.model.ChartData;
+import com.stockapp.backend.model.EODData;
+import com.stockapp.backend.model.Pagination;
+import com.stockapp.backend.model.SeriesField;
+import com.stockapp.backend.model.SeriesRows;
+import com.stockapp.backend.model.StockData;
+import com.stockapp.backend.model.SymbolSeries;
+import com.stockapp.backend.service.SeriesAlignment;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Building and serializing {@code /eod} and {@code /chart} responses for cached series.
+ * Serialization writes to a discarding stream so only Jackson and row expansion are measured.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class ResponseBenchmark {
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Param({"1", "20"})
+    public int symbols;
+
+    private List<SymbolSeries> series;
+    private StockData stockData;
+    private ChartData chartData;
+    private OutputStream sink;
+
+    @Setup
+    public void setUp() {
+        series = Fixtures.series(symbols);
+        stockData = stockData(series);
+        chartData = SeriesAlignment.align(series, SeriesField.CLOSE);
+        sink = OutputStream.nullOutputStream();
+    }
+
+    /** Expands every row to an {@code EODData}, as a consumer iterating the list would. */
+    @Benchmark
+    public void buildEodRows(Blackhole blackhole) {
+        for (EODData row : stockData(series).getData()) {
+            blackhole.consume(row);
+        }
+    }
+
+    @Benchmark
+    public void serializeEod() throws IOException {
+        objectMapper.writeValue(sink, stockData);
+    }
+
+    @Benchmark
+    public ChartData alignChart() {
+        return SeriesAlignment.align(series, SeriesField.CLOSE);
+    }
+
+    @Benchmark
+    public void serializeChart() throws IOException {
+        objectMapper.writeValue(sink, chartData);
+    }
+
+    private static StockData stockData(List<SymbolSeries> series) {
+        SeriesRows rows = new SeriesRows(series);
+        StockData stockData = new StockData();
+        stockData.setData(rows);
+        Pagination pagination = new Pagination();
+        pagination.setCount(rows.size());
+        pagination.setTotal(rows.size());
+        stockData.setPagination(pagination);
+        return stockData;
+    }
+}
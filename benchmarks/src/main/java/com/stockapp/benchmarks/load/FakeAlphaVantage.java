@@ -0,0 +1,179 @@
+package com.stockapp.benchmarks.load;
+
+import io.netty.handler.codec.http.HttpResponseStatus;
+import io.netty.handler.codec.http.QueryStringDecoder;
+import org.reactivestreams.Publisher;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+import reactor.netty.http.server.HttpServerRequest;
+import reactor.netty.http.server.HttpServerResponse;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Embeddable stand-in for the AlphaVantage {@code /query} endpoint. Serves synthetic
+ * TIME_SERIES_MONTHLY payloads in the real response format (a deterministic random walk
+ * per symbol) with log-normal latency, injected HTTP errors, stalled responses that trip
+ * client timeouts, and AlphaVantage-style rate-limit notes once the per-minute or per-day
+ * quota is spent. Point {@code alphavantage.api.url} at {@link #url()}.
+ * <p>
+ * Run standalone with {@code java -cp benchmarks.jar com.stockapp.benchmarks.load.FakeAlphaVantage
+ * --port=9090 --latency-median=300ms --latency-p99=2s --error-rate=0.01 --per-minute=5}.
+ */
+public final class FakeAlphaVantage implements AutoCloseable {
+    /** Symbols with this prefix get AlphaVantage's invalid-call response. */
+    public static final String INVALID_PREFIX = "INVALID";
+
+    /** z-score of the 99th percentile, used to derive the log-normal spread from p50 and p99. */
+    private static final double Z_99 = 2.326;
+
+    private final Settings settings;
+    private final ConcurrentMap<String, byte[]> payloads = new ConcurrentHashMap<>();
+    private final AtomicLong minuteWindow = new AtomicLong();
+    private final AtomicLong minuteCalls = new AtomicLong();
+    private final AtomicLong dayCalls = new AtomicLong();
+    private final AtomicLong served = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final AtomicLong rateLimited = new AtomicLong();
+    private final DisposableServer server;
+
+    public FakeAlphaVantage(Settings settings) {
+        this.settings = settings;
+        this.server = HttpServer.create()
+            .host("127.0.0.1")
+            .port(settings.port())
+            .route(routes -> routes.get("/query", this::query))
+            .bindNow();
+    }
+
+    public String url() {
+        return "http://127.0.0.1:" + server.port() + "/query";
+    }
+
+    public String stats() {
+        return String.format(Locale.ROOT, "fake upstream: %d served, %d failed, %d rate-limited",
+            served.get(), failed.get(), rateLimited.get());
+    }
+
+    @Override
+    public void close() {
+        server.disposeNow();
+    }
+
+    private Publisher<Void> query(HttpServerRequest request, HttpServerResponse response) {
+        QueryStringDecoder query = new QueryStringDecoder(request.uri());
+        String function = parameter(query, "function");
+        String symbol = parameter(query, "symbol");
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+
+        byte[] body;
+        if (!"TIME_SERIES_MONTHLY".equals(function) || symbol == null || symbol.startsWith(INVALID_PREFIX)) {
+            body = json("{\"Error Message\": \"Invalid API call. Please retry or visit the documentation.\"}");
+        } else if (!withinQuota()) {
+            rateLimited.incrementAndGet();
+            body = json("{\"Information\": \"Thank you for using Alpha Vantage! Our standard API rate limit is "
+                + settings.perMinute() + " requests per minute and " + settings.perDay() + " requests per day.\"}");
+        } else if (random.nextDouble() < settings.errorRate()) {
+            failed.incrementAndGet();
+            return Mono.delay(latency(random))
+                .then(response.status(HttpResponseStatus.SERVICE_UNAVAILABLE).send());
+        } else {
+            body = payloads.computeIfAbsent(symbol, this::payload);
+        }
+        Duration delay = random.nextDouble() < settings.stallRate() ? settings.stall() : latency(random);
+        served.incrementAndGet();
+        return Mono.delay(delay)
+            .then(response.header("Content-Type", "application/json")
+                .sendByteArray(Mono.just(body))
+                .then());
+    }
+
+    private boolean withinQuota() {
+        long minute = System.currentTimeMillis() / 60_000;
+        long window = minuteWindow.get();
+        if (window != minute && minuteWindow.compareAndSet(window, minute)) {
+            minuteCalls.set(0);
+        }
+        return (settings.perMinute() <= 0 || minuteCalls.incrementAndGet() <= settings.perMinute())
+            && (settings.perDay() <= 0 || dayCalls.incrementAndGet() <= settings.perDay());
+    }
+
+    private Duration latency(Random random) {
+        double median = settings.latencyMedian().toNanos();
+        if (median <= 0) {
+            return Duration.ZERO;
+        }
+        double sigma = Math.log((double) settings.latencyP99().toNanos() / median) / Z_99;
+        return Duration.ofNanos((long) (median * Math.exp(sigma * random.nextGaussian())));
+    }
+
+    private byte[] payload(String symbol) {
+        Random random = new Random(symbol.hashCode());
+        YearMonth first = YearMonth.now().minusMonths(settings.months() - 1L);
+        String[] bars = new String[settings.months()];
+        double price = 20 + random.nextDouble() * 200;
+        for (int i = 0; i < bars.length; i++) {
+            double open = price;
+            double close = Math.max(1, open * (1 + 0.004 + 0.07 * random.nextGaussian()));
+            double high = Math.max(open, close) * (1 + Math.abs(0.03 * random.nextGaussian()));
+            double low = Math.min(open, close) * (1 - Math.abs(0.03 * random.nextGaussian()));
+            long volume = 1_000_000 + (long) (random.nextDouble() * 200_000_000);
+            // Newest first, as AlphaVantage orders the series
+            bars[bars.length - 1 - i] = String.format(Locale.ROOT, "\"%s\": {\"1. open\": \"%.4f\", "
+                    + "\"2. high\": \"%.4f\", \"3. low\": \"%.4f\", \"4. close\": \"%.4f\", \"5. volume\": \"%d\"}",
+                first.plusMonths(i).atEndOfMonth(), open, high, low, close, volume);
+            price = close;
+        }
+        return json("{\"Meta Data\": {\"1. Information\": \"Monthly Prices (open, high, low, close) and Volumes\", "
+            + "\"2. Symbol\": \"" + symbol + "\", \"3. Last Refreshed\": \"" + LocalDate.now() + "\", "
+            + "\"4. Time Zone\": \"US/Eastern\"}, \"Monthly Time Series\": {" + String.join(", ", bars) + "}}");
+    }
+
+    private static String parameter(QueryStringDecoder query, String name) {
+        List<String> values = query.parameters().get(name);
+        return values == null || values.isEmpty() ? null : values.get(0);
+    }
+
+    private static byte[] json(String json) {
+        return json.getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Behaviour of the fake. A quota of zero or less is unlimited; latency is log-normal
+     * with the given median and 99th percentile.
+     */
+    public record Settings(int port, Duration latencyMedian, Duration latencyP99, double errorRate,
+                           double stallRate, Duration stall, int perMinute, int perDay, int months) {
+
+        static Settings from(Arguments args) {
+            return new Settings(
+                args.integer("port", 0),
+                args.duration("latency-median", Duration.ofMillis(300)),
+                args.duration("latency-p99", Duration.ofSeconds(2)),
+                args.decimal("error-rate", 0.0),
+                args.decimal("stall-rate", 0.0),
+                args.duration("stall", Duration.ofSeconds(30)),
+                args.integer("per-minute", 0),
+                args.integer("per-day", 0),
+                args.integer("months", 293));
+        }
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        FakeAlphaVantage fake = new FakeAlphaVantage(Settings.from(new Arguments(args)));
+        System.out.println("Fake AlphaVantage listening on " + fake.url());
+        Runtime.getRuntime().addShutdownHook(new Thread(fake::close));
+        Thread.currentThread().join();
+    }
+}
@@ -0,0 +1,237 @@
+package com.stockapp.benchmarks.load;
+
+import com.stockapp.backend.StockAppApplication;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Closed-loop load generator for {@code /api/stocks/eod}. Each worker repeatedly requests a
+ * random watchlist whose symbols are drawn from a Zipf distribution over the universe, so a
+ * few symbols are hot and a long tail is rarely requested, as with real watchlists.
+ * Latencies after the warm-up are recorded in an HDR histogram and reported with throughput
+ * and outcome counts.
+ * <p>
+ * Without {@code --target} the backend is started in-process against an embedded
+ * {@link FakeAlphaVantage}, which accepts the same options as when run standalone; backend
+ * properties can be overridden with {@code -Dname=value}, and {@code --threads=virtual} runs
+ * it in virtual-thread mode (Java 21+). Options:
+ * {@code --concurrency=32 --duration=60s --warmup=10s --universe=500 --zipf=1.1
+ * --max-symbols=5 --threads=platform}.
+ * <p>
+ * A concurrent-miss run, where nearly every symbol is a cache miss waiting on slow upstream
+ * calls, compares the two threading modes:
+ * {@code --universe=1000000 --zipf=0 --latency-median=1s --latency-p99=3s --concurrency=400},
+ * with {@code -Dserver.tomcat.threads.max=50} as a JVM option to make pool exhaustion visible.
+ */
+public final class LoadHarness {
+    private static final long MAX_LATENCY_MICROS = TimeUnit.MINUTES.toMicros(2);
+
+    private final URI endpoint;
+    private final HttpClient httpClient;
+    private final double[] cumulative;
+    private final int maxSymbols;
+    private final Histogram latencies = new ConcurrentHistogram(MAX_LATENCY_MICROS, 3);
+    private final AtomicLong ok = new AtomicLong();
+    private final AtomicLong partial = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+
+    LoadHarness(String baseUrl, int universe, double zipfExponent, int maxSymbols) {
+        this.endpoint = URI.create(baseUrl + "/api/stocks/eod");
+        this.httpClient = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+        this.cumulative = zipf(universe, zipfExponent);
+        this.maxSymbols = Math.max(1, maxSymbols);
+    }
+
+    public static void main(String[] argv) throws Exception {
+        Arguments args = new Arguments(argv);
+        String target = args.string("target", null);
+        FakeAlphaVantage fake = null;
+        ConfigurableApplicationContext app = null;
+        try {
+            if (target == null) {
+                FakeAlphaVantage.Settings settings = FakeAlphaVantage.Settings.from(args);
+                fake = new FakeAlphaVantage(settings);
+                app = startBackend(fake.url(), settings, "virtual".equals(args.string("threads", "platform")));
+                System.out.println("Backend on " + (Threading.VIRTUAL.isActive(app.getEnvironment()) ? "virtual" : "platform")
+                    + " threads, Java " + Runtime.version().feature());
+                target = "http://127.0.0.1:" + ((WebServerApplicationContext) app).getWebServer().getPort();
+            }
+            LoadHarness harness = new LoadHarness(target, args.integer("universe", 500),
+                args.decimal("zipf", 1.1), args.integer("max-symbols", 5));
+            Duration warmup = args.duration("warmup", Duration.ofSeconds(10));
+            Duration duration = args.duration("duration", Duration.ofSeconds(60));
+            int concurrency = args.integer("concurrency", 32);
+
+            System.out.printf(Locale.ROOT, "Driving %s with %d workers: %ds warm-up, %ds measured%n",
+                target, concurrency, warmup.toSeconds(), duration.toSeconds());
+            harness.run(concurrency, warmup);
+            harness.reset();
+            long start = System.nanoTime();
+            harness.run(concurrency, duration);
+            harness.report(Duration.ofNanos(System.nanoTime() - start));
+            if (fake != null) {
+                System.out.println(fake.stats());
+            }
+        } finally {
+            if (app != null) {
+                app.close();
+            }
+            if (fake != null) {
+                fake.close();
+            }
+        }
+    }
+
+    /**
+     * Starts the backend on a random port against the fake. Its upstream quota defaults to the
+     * fake's so the scheduler, not the fake, rejects excess calls, as it would in production.
+     */
+    private static ConfigurableApplicationContext startBackend(String upstreamUrl, FakeAlphaVantage.Settings settings,
+                                                               boolean virtualThreads) {
+        Map<String, String> overrides = Map.of(
+            "server.port", "0",
+            "alphavantage.api.url", upstreamUrl,
+            "alphavantage.api.key", "load-test",
+            "alphavantage.quota.per-minute", String.valueOf(settings.perMinute() > 0 ? settings.perMinute() : 1_000_000),
+            "alphavantage.quota.per-day", String.valueOf(settings.perDay() > 0 ? settings.perDay() : 1_000_000),
+            "stockapp.store.enabled", "false",
+            "spring.threads.virtual.enabled", String.valueOf(virtualThreads),
+            "server.tomcat.accesslog.enabled", "false",
+            "logging.level.root", "WARN",
+            "logging.level.com.stockapp", "WARN");
+        // System properties outrank application.properties; any -D given on the command line is kept
+        overrides.forEach(System.getProperties()::putIfAbsent);
+        SpringApplication application = new SpringApplication(StockAppApplication.class);
+        return application.run();
+    }
+
+    void run(int concurrency, Duration duration) throws InterruptedException {
+        long deadline = System.nanoTime() + duration.toNanos();
+        List<Thread> workers = new ArrayList<>(concurrency);
+        for (int i = 0; i < concurrency; i++) {
+            Thread worker = new Thread(() -> {
+                while (System.nanoTime() < deadline) {
+                    request();
+                }
+            }, "load-" + i);
+            worker.start();
+            workers.add(worker);
+        }
+        for (Thread worker : workers) {
+            worker.join();
+        }
+    }
+
+    void reset() {
+        latencies.reset();
+        ok.set(0);
+        partial.set(0);
+        failed.set(0);
+    }
+
+    private void request() {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(endpoint + "?symbols=" + watchlist()))
+            .timeout(Duration.ofSeconds(30))
+            .GET()
+            .build();
+        long start = System.nanoTime();
+        try {
+            HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+            record(start);
+            if (response.statusCode() != 200) {
+                failed.incrementAndGet();
+            } else if (response.body().contains("\"errors\":")) {
+                partial.incrementAndGet();
+            } else {
+                ok.incrementAndGet();
+            }
+        } catch (IOException e) {
+            record(start);
+            failed.incrementAndGet();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void record(long start) {
+        long micros = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - start);
+        latencies.recordValue(Math.min(micros, MAX_LATENCY_MICROS));
+    }
+
+    private String watchlist() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int size = 1 + random.nextInt(maxSymbols);
+        Set<String> symbols = new LinkedHashSet<>();
+        // Duplicates are dropped, as the backend would; a hot symbol may shrink the list
+        for (int i = 0; i < size; i++) {
+            symbols.add(symbol(random.nextDouble()));
+        }
+        return String.join(",", symbols);
+    }
+
+    private String symbol(double u) {
+        int lo = 0;
+        int hi = cumulative.length - 1;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (cumulative[mid] < u) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return String.format(Locale.ROOT, "T%04d", lo);
+    }
+
+    private void report(Duration elapsed) {
+        long total = latencies.getTotalCount();
+        double seconds = elapsed.toNanos() / 1e9;
+        System.out.printf(Locale.ROOT, "requests   %d (%d ok, %d partial, %d failed)%n",
+            total, ok.get(), partial.get(), failed.get());
+        System.out.printf(Locale.ROOT, "throughput %.1f req/s%n", total / seconds);
+        System.out.printf(Locale.ROOT, "latency    p50 %.2f ms, p99 %.2f ms, p999 %.2f ms, max %.2f ms%n",
+            millis(latencies.getValueAtPercentile(50)), millis(latencies.getValueAtPercentile(99)),
+            millis(latencies.getValueAtPercentile(99.9)), millis(latencies.getMaxValue()));
+    }
+
+    private static double millis(long micros) {
+        return micros / 1000.0;
+    }
+
+    /** Cumulative Zipf probabilities over ranks 1..n. */
+    private static double[] zipf(int n, double exponent) {
+        double[] cumulative = new double[n];
+        double sum = 0;
+        for (int k = 0; k < n; k++) {
+            sum += 1 / Math.pow(k + 1, exponent);
+            cumulative[k] = sum;
+        }
+        for (int k = 0; k < n; k++) {
+            cumulative[k] /= sum;
+        }
+        return cumulative;
+    }
+}
@@ -1,6 +1,30 @@
+import fs from "fs"
 import path from "path"
+import zlib from "zlib"
 import react from "@vitejs/plugin-react"
-import { defineConfig, loadEnv } from "vite"
+import { defineConfig, loadEnv, type Plugin } from "vite"
+
+// Writes .br and .gz next to each text output so the backend can serve them as-is
+// (see EncodedResourceResolver in WebConfig) instead of compressing on every request.
+function precompress(): Plugin {
+  const compressible = /\.(js|css|html|svg|json)$/
+  return {
+    name: "precompress",
+    apply: "build",
+    writeBundle(options, bundle) {
+      for (const fileName of Object.keys(bundle)) {
+        if (!compressible.test(fileName)) continue
+        const file = path.resolve(options.dir!, fileName)
+        const contents = fs.readFileSync(file)
+        if (contents.length < 1024) continue
+        fs.writeFileSync(`${file}.gz`, zlib.gzipSync(contents, { level: 9 }))
+        fs.writeFileSync(`${file}.br`, zlib.brotliCompressSync(contents, {
+          params: { [zlib.constants.BROTLI_PARAM_QUALITY]: zlib.constants.BROTLI_MAX_QUALITY },
+        }))
+      }
+    },
+  }
+}
 
 export default defineConfig(({ mode }) => {
   const env = loadEnv(mode, process.cwd(), '');
@@ -10,7 +34,7 @@ export default defineConfig(({ mode }) => {
   });
   
   return {
-    plugins: [react()],
+    plugins: [react(), precompress()],
     server: {
       host: true,
       strictPort: true,
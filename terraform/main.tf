@@ -50,6 +50,14 @@ resource "aws_ecs_task_definition" "stockapp" {
         {
           name  = "MARKETSTACK_API_KEY"
           value = "83c8eb73c602dc78f07f9235123411b4"
+        },
+        {
+          name  = "STOCKAPP_SHARED_CACHE"
+          value = "true"
+        },
+        {
+          name  = "REDIS_HOST"
+          value = aws_elasticache_cluster.stockapp.cache_nodes[0].address
         }
       ]
       logConfiguration = {
@@ -143,6 +151,36 @@ resource "aws_security_group" "ecs_tasks" {
   }
 }
 
+# Shared cache tier for the ECS tasks (see stockapp.cache.shared.* in application.properties)
+resource "aws_security_group" "cache" {
+  name        = "stockapp-cache"
+  description = "Allow Redis traffic from ECS tasks"
+  vpc_id      = data.aws_vpc.main.id
+
+  ingress {
+    from_port       = 6379
+    to_port         = 6379
+    protocol        = "tcp"
+    security_groups = [aws_security_group.ecs_tasks.id]
+  }
+}
+
+resource "aws_elasticache_subnet_group" "stockapp" {
+  name       = "stockapp-cache"
+  subnet_ids = data.aws_subnet.public[*].id
+}
+
+resource "aws_elasticache_cluster" "stockapp" {
+  cluster_id           = "stockapp-cache"
+  engine               = "redis"
+  node_type            = "cache.t4g.micro"
+  num_cache_nodes      = 1
+  parameter_group_name = "default.redis7"
+  port                 = 6379
+  subnet_group_name    = aws_elasticache_subnet_group.stockapp.name
+  security_group_ids   = [aws_security_group.cache.id]
+}
+
 # Application Load Balancer
 resource "aws_lb" "stockapp" {
   name               = "stockapp-lb"